@@ -3,6 +3,7 @@ package com.gentics.mesh.alexa;
 import static io.vertx.core.logging.LoggerFactory.LOGGER_DELEGATE_FACTORY_CLASS_NAME;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 
 import org.apache.logging.log4j.Level;
@@ -13,6 +14,7 @@ import com.gentics.mesh.alexa.dagger.DaggerAppComponent;
 import com.gentics.mesh.alexa.dagger.config.SkillConfig;
 import com.gentics.mesh.alexa.server.SkillServerVerticle;
 
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Vertx;
 import io.vertx.core.logging.Log4j2LogDelegateFactory;
 import io.vertx.core.logging.Logger;
@@ -72,20 +74,98 @@ public class MuseTechSkill {
 		if (key != null) {
 			config.setMeshApiKey(key);
 		}
+
+		String tourCacheTtl = System.getenv("TOUR_CACHE_TTL");
+		if (tourCacheTtl != null) {
+			config.setTourCacheTtl(Long.parseLong(tourCacheTtl));
+		}
+
+		String workerPoolSize = System.getenv("SKILL_WORKER_POOL_SIZE");
+		if (workerPoolSize != null) {
+			config.setWorkerPoolSize(Integer.parseInt(workerPoolSize));
+		}
+
+		String serverInstances = System.getenv("SKILL_SERVER_INSTANCES");
+		if (serverInstances != null) {
+			config.setServerInstances(Integer.parseInt(serverInstances));
+		}
+
+		String flushInterval = System.getenv("RESERVATION_FLUSH_INTERVAL");
+		if (flushInterval != null) {
+			config.setReservationFlushInterval(Long.parseLong(flushInterval));
+		}
+
+		String reservationLogPath = System.getenv("RESERVATION_LOG_PATH");
+		if (reservationLogPath != null) {
+			config.setReservationLogPath(reservationLogPath);
+		}
+
+		String poolSize = System.getenv("MESH_POOL_SIZE");
+		if (poolSize != null) {
+			config.setMeshPoolSize(Integer.parseInt(poolSize));
+		}
+
+		String keepAlive = System.getenv("MESH_KEEP_ALIVE");
+		if (keepAlive != null) {
+			config.setMeshKeepAlive(Long.parseLong(keepAlive));
+		}
+
+		String maxRequests = System.getenv("MESH_MAX_REQUESTS_PER_HOST");
+		if (maxRequests != null) {
+			config.setMeshMaxRequestsPerHost(Integer.parseInt(maxRequests));
+		}
+
+		String http2 = System.getenv("MESH_HTTP2");
+		if (http2 != null) {
+			config.setMeshHttp2(Boolean.parseBoolean(http2));
+		}
+
+		String connectTimeout = System.getenv("MESH_CONNECT_TIMEOUT");
+		if (connectTimeout != null) {
+			config.setMeshConnectTimeout(Long.parseLong(connectTimeout));
+		}
+
+		String readTimeout = System.getenv("MESH_READ_TIMEOUT");
+		if (readTimeout != null) {
+			config.setMeshReadTimeout(Long.parseLong(readTimeout));
+		}
+
+		String writeTimeout = System.getenv("MESH_WRITE_TIMEOUT");
+		if (writeTimeout != null) {
+			config.setMeshWriteTimeout(Long.parseLong(writeTimeout));
+		}
+
+		String tlsSessionCacheSize = System.getenv("MESH_TLS_SESSION_CACHE_SIZE");
+		if (tlsSessionCacheSize != null) {
+			config.setMeshTlsSessionCacheSize(Integer.parseInt(tlsSessionCacheSize));
+		}
+
+		String tlsSessionTimeout = System.getenv("MESH_TLS_SESSION_TIMEOUT");
+		if (tlsSessionTimeout != null) {
+			config.setMeshTlsSessionTimeout(Integer.parseInt(tlsSessionTimeout));
+		}
 	}
 
 	private Vertx vertx;
-	private SkillServerVerticle serverVerticle;
+	private SkillConfig config;
+	private Provider<SkillServerVerticle> serverVerticleProvider;
 
 	@Inject
-	public MuseTechSkill(Vertx vertx, SkillServerVerticle serverVerticle) {
+	public MuseTechSkill(Vertx vertx, SkillConfig config, Provider<SkillServerVerticle> serverVerticleProvider) {
 		this.vertx = vertx;
-		this.serverVerticle = serverVerticle;
+		this.config = config;
+		this.serverVerticleProvider = serverVerticleProvider;
 	}
 
 	public void run() {
-		log.info("Deploying Muse Tech Skill");
-		vertx.deployVerticle(serverVerticle);
+		int instances = config.getServerInstances();
+		log.info("Deploying Muse Tech Skill with {" + instances + "} server instances");
+		// Each instance gets its own verticle. The instances share the server port and the singletons like the Mesh actions.
+		vertx.deployVerticle(serverVerticleProvider::get, new DeploymentOptions().setInstances(instances), dh -> {
+			if (dh.failed()) {
+				log.error("Could not deploy skill server", dh.cause());
+			}
+		});
 	}
 
 }
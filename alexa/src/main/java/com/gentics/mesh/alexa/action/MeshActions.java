@@ -2,11 +2,15 @@ package com.gentics.mesh.alexa.action;
 
 import static com.gentics.mesh.alexa.util.I18NUtil.i18n;
 
+import java.io.File;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -16,26 +20,19 @@ import org.apache.commons.io.IOUtils;
 import com.gentics.mesh.alexa.dagger.config.SkillConfig;
 import com.gentics.mesh.alexa.intent.impl.TourInfoIntentHandler;
 import com.gentics.mesh.alexa.model.AlexaResponse;
+import com.gentics.mesh.alexa.model.Tour;
 import com.gentics.mesh.alexa.model.TourInfo;
 import com.gentics.mesh.alexa.util.DateUtils;
 import com.gentics.mesh.core.rest.graphql.GraphQLRequest;
 import com.gentics.mesh.core.rest.node.NodeListResponse;
 import com.gentics.mesh.core.rest.node.NodeResponse;
-import com.gentics.mesh.core.rest.node.NodeUpdateRequest;
-import com.gentics.mesh.core.rest.node.field.MicronodeField;
-import com.gentics.mesh.core.rest.node.field.impl.DateFieldImpl;
-import com.gentics.mesh.core.rest.node.field.impl.NumberFieldImpl;
-import com.gentics.mesh.core.rest.node.field.list.MicronodeFieldList;
-import com.gentics.mesh.parameter.NodeParameters;
-import com.gentics.mesh.parameter.client.NodeParametersImpl;
 import com.gentics.mesh.rest.client.MeshRestClient;
 import com.gentics.mesh.rest.client.MeshRestClientConfig;
 
-import io.reactivex.Completable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Single;
-import io.vertx.core.json.JsonArray;
+import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
@@ -45,8 +42,12 @@ public class MeshActions {
 
 	private static final Logger log = LoggerFactory.getLogger(TourInfoIntentHandler.class);
 
+	private static final int DEBUG_SAMPLE_RATE = 100;
+
 	private final String PROJECT = "musetech";
 
+	private final AtomicLong queryCount = new AtomicLong();
+
 	private final MeshRestClient client;
 
 	private final JsonObject searchTourQuery;
@@ -55,8 +56,22 @@ public class MeshActions {
 
 	private final String loadTourByUuidQuery;
 
-	@Inject
+	private final TourCatalog catalog;
+
+	private final ReservationLedger ledger;
+
 	public MeshActions(SkillConfig config) {
+		this(config, null);
+	}
+
+	/**
+	 * Create the actions. The tour catalogue will be refreshed by Mesh events if a Vert.x instance is given. Otherwise only the TTL applies.
+	 * 
+	 * @param config
+	 * @param vertx
+	 */
+	@Inject
+	public MeshActions(SkillConfig config, Vertx vertx) {
 
 		MeshRestClientConfig clientConfig = MeshRestClientConfig.newConfig()
 			.setHost(config.getMeshServerHost())
@@ -65,7 +80,7 @@ public class MeshActions {
 			.setBasePath("/api/v2")
 			.build();
 
-		client = MeshRestClient.create(clientConfig);
+		client = MeshRestClient.create(clientConfig, MeshHttpClientFactory.create(config));
 		String apiKey = config.getMeshApiKey();
 		if (apiKey != null) {
 			client.setAPIKey(apiKey);
@@ -80,6 +95,24 @@ public class MeshActions {
 		} catch (Exception e) {
 			throw new RuntimeException("Could not find query.");
 		}
+		catalog = new TourCatalog(this::loadTours, config.getTourCacheTtl());
+		try {
+			ledger = new ReservationLedger(new TourReservations(client, PROJECT), new File(config.getReservationLogPath()));
+		} catch (IOException e) {
+			throw new RuntimeException("Could not open reservation log {" + config.getReservationLogPath() + "}", e);
+		}
+		long flushInterval = config.getReservationFlushInterval();
+		Observable.interval(flushInterval, flushInterval, TimeUnit.MILLISECONDS)
+			.concatMapSingle(t -> ledger.flush())
+			.filter(count -> count > 0)
+			.subscribe(count -> catalog.refreshAll(), err -> log.error("Reservation flushing stopped", err));
+		// The eventbus websocket requires an API key. The catalogue is refreshed by its TTL otherwise.
+		if (vertx != null && apiKey != null) {
+			new MeshEventListener(vertx, config, this::onNodeEvent).connect();
+		} else if (vertx != null) {
+			log.info("No Mesh API key configured. Not listening to node events. The tour catalogue is refreshed every {" + config.getTourCacheTtl()
+				+ "} ms.");
+		}
 	}
 
 	private String loadString(String path) throws IOException {
@@ -90,13 +123,65 @@ public class MeshActions {
 		return new JsonObject(loadString(path));
 	}
 
-	public Single<AlexaResponse> loadTourInfos(Locale locale) {
+	/**
+	 * Load all tours of the language from Mesh.
+	 * 
+	 * @param lang
+	 * @return
+	 */
+	private Single<List<Tour>> loadTours(String lang) {
+		JsonObject vars = new JsonObject();
+		vars.put("lang", lang);
+
+		GraphQLRequest request = new GraphQLRequest();
+		request.setQuery(loadAllToursInfoQuery);
+		request.setVariables(vars);
 
-		return client.graphqlQuery(PROJECT, loadAllToursInfoQuery).toMaybe().map(response -> {
-			System.out.println(response.toJson());
-			JsonObject json = response.getData();
-			JsonArray tours = json.getJsonObject("schema").getJsonObject("nodes").getJsonArray("elements");
+		return query(request).map(TourDecoder::decodeTours);
+	}
 
+	/**
+	 * Run the GraphQL query and return the raw response body. The body is decoded by the {@link TourDecoder} without building a JSON tree. Every
+	 * {@value #DEBUG_SAMPLE_RATE}th response is logged when debug logging is enabled.
+	 * 
+	 * @param request
+	 * @return
+	 */
+	private Single<String> query(GraphQLRequest request) {
+		return client.graphql(PROJECT, request).getResponse().map(response -> {
+			String body = response.getBodyAsString();
+			if (response.getStatusCode() >= 400) {
+				throw new IOException("GraphQL request failed with status {" + response.getStatusCode() + "}");
+			}
+			if (log.isDebugEnabled() && queryCount.getAndIncrement() % DEBUG_SAMPLE_RATE == 0) {
+				log.debug("GraphQL response:\n" + body);
+			}
+			return body;
+		});
+	}
+
+	/**
+	 * Refresh the tour catalogue when a tour was changed in Mesh.
+	 * 
+	 * @param event
+	 *            Body of the node event
+	 */
+	private void onNodeEvent(JsonObject event) {
+		JsonObject schema = event.getJsonObject("schema");
+		if (schema == null || !"Tour".equals(schema.getString("name"))) {
+			return;
+		}
+		String lang = event.getString("languageTag");
+		log.info("Tour {" + event.getString("uuid") + "} was changed. Refreshing tours for language {" + lang + "}");
+		if (lang == null) {
+			catalog.refreshAll();
+		} else {
+			catalog.refresh(lang);
+		}
+	}
+
+	public Single<AlexaResponse> loadTourInfos(Locale locale) {
+		return catalog.tours(locale).map(tours -> {
 			if (tours.size() == 0) {
 				return AlexaResponse.create(locale, "tours_empty");
 			}
@@ -105,13 +190,8 @@ public class MeshActions {
 			builder.append(i18n(locale, "tour_info_intro"));
 			builder.append(" ");
 			for (int i = 0; i < tours.size(); i++) {
-				JsonObject tour = tours.getJsonObject(i);
-				JsonObject tourFields = tour.getJsonObject("fields");
-				String title = tourFields.getString("title");
-				int size = tourFields.getInteger("size");
-				double price = tourFields.getDouble("price");
-				JsonArray dates = tourFields.getJsonArray("dates");
-				builder.append(i18n(locale, "tour_info", title, String.valueOf(size)));
+				Tour tour = tours.get(i);
+				builder.append(i18n(locale, "tour_info", tour.getTitle(), String.valueOf(tour.getSize())));
 				if (tours.size() >= 2 && i == tours.size() - 2) {
 					builder.append(" " + i18n(locale, "and") + " ");
 				} else {
@@ -120,10 +200,17 @@ public class MeshActions {
 			}
 			return AlexaResponse.create(builder.toString());
 		})
-			.onErrorReturnItem(AlexaResponse.create(locale, "tours_empty"))
-			.toSingle();
+			.onErrorReturnItem(AlexaResponse.create(locale, "tours_empty"));
 	}
 
+	/**
+	 * Load the tour date directly from Mesh. The catalogue is not used since the seats need to be accurate for reservations.
+	 * 
+	 * @param locale
+	 * @param tourUuid
+	 * @param tourDateStr
+	 * @return
+	 */
 	public Maybe<TourInfo> loadTourByUuid(Locale locale, String tourUuid, String tourDateStr) {
 		JsonObject vars = new JsonObject();
 		vars.put("lang", locale.getLanguage());
@@ -133,98 +220,58 @@ public class MeshActions {
 		request.setQuery(loadTourByUuidQuery);
 		request.setVariables(vars);
 
-		return client.graphql(PROJECT, request).toMaybe().flatMap(response -> {
-			// System.out.println(response.toJson());
-			JsonObject json = response.getData();
-			JsonObject tour = json.getJsonObject("node");
+		return query(request).flatMapMaybe(body -> {
+			Tour tour = TourDecoder.decodeTour(body);
 			if (tour == null) {
 				return Maybe.empty();
 			}
-
-			JsonObject tourFields = tour.getJsonObject("fields");
-			String uuid = tour.getString("uuid");
-			String title = tourFields.getString("title");
-			String location = tourFields.getString("location");
-			int size = tourFields.getInteger("size");
-			double price = tourFields.getDouble("price");
-			JsonArray dates = tourFields.getJsonArray("dates");
-			if (dates.isEmpty()) {
-				return Maybe.empty();
-			}
-			for (int e = 0; e < dates.size(); e++) {
-				JsonObject tourDate = dates.getJsonObject(e);
-				JsonObject tourDateFields = tourDate.getJsonObject("fields");
-				int seats = tourDateFields.getInteger("seats");
-				String dateStr = tourDateFields.getString("date");
-				OffsetDateTime date = null;
-				try {
-					date = DateUtils.parse(dateStr);
-				} catch (Exception e2) {
-					log.error("Could not parse date {" + dateStr + "}");
-				}
-
-				if (dateStr.equals(tourDateStr)) {
-					System.out.println("Comparing: " + dateStr + " with " + tourDateStr);
-					return Maybe.just(new TourInfo(uuid, title, location, date, price, seats, size, tourDateStr));
+			for (TourInfo info : tour.getDates()) {
+				if (info.getDateStr().equals(tourDateStr)) {
+					return Maybe.just(info);
 				}
 			}
-
 			return Maybe.empty();
-
 		});
 	}
 
 	public Maybe<TourInfo> loadNextTour(Locale locale) {
-		JsonObject vars = new JsonObject();
-		vars.put("lang", locale.getLanguage());
-
-		GraphQLRequest request = new GraphQLRequest();
-		request.setQuery(loadAllToursInfoQuery);
-		request.setVariables(vars);
-
-		return client.graphql(PROJECT, request).toMaybe().map(response -> {
-			System.out.println(response.toJson());
-			JsonObject json = response.getData();
-			JsonArray tours = json.getJsonObject("schema").getJsonObject("nodes").getJsonArray("elements");
-			return findNextTour(tours);
+		return catalog.schedule(locale).flatMapMaybe(schedule -> {
+			// Skip dates which have been sold out by reservations which have not yet been written to Mesh
+			TourInfo next = schedule.next(DateUtils.now(), info -> ledger.getAvailable(info) > 0);
+			return next == null ? Maybe.empty() : Maybe.just(next);
 		});
 	}
 
 	public Single<AlexaResponse> loadNextTourInfo(Locale locale) {
 
 		return loadNextTour(locale).map(tour -> {
-			if (tour == null) {
-				return AlexaResponse.create(locale, "tours_empty");
-			} else {
-				OffsetDateTime dateTime = tour.getDate();
-				LocalDate date = dateTime.toLocalDate();
-				LocalDate today = DateUtils.now().toLocalDate();
-				boolean isToday = date.isEqual(today);
-				boolean isTomorrow = date.isEqual(today.plusDays(1));
-				StringBuilder builder = new StringBuilder();
-				String timeStr = DateUtils.toTime(dateTime);
-				String dateStr = date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
-				if (isToday) {
-					builder.append(i18n(locale, "tour_next_info_today", tour.getTitle(), timeStr, tour.getLocation()));
-					builder.append(" ");
-					builder.append(seatsInfo(locale, tour.getSeats()));
-				} else if (isTomorrow) {
-					builder.append(i18n(locale, "tour_next_info_tomorrow", tour.getTitle(), timeStr, tour.getLocation()));
-					builder.append(" ");
-					builder.append(seatsInfo(locale, tour.getSeats()));
-				} else {
-					// builder.append(i18n(locale, "tour_next_info_tomorrow"));
-					builder.append(i18n(locale, "tour_next_info_on", tour.getTitle(), dateStr, timeStr, tour.getLocation()));
-				}
+			OffsetDateTime dateTime = tour.getDate();
+			LocalDate date = dateTime.toLocalDate();
+			LocalDate today = DateUtils.now().toLocalDate();
+			boolean isToday = date.isEqual(today);
+			boolean isTomorrow = date.isEqual(today.plusDays(1));
+			StringBuilder builder = new StringBuilder();
+			String timeStr = DateUtils.toTime(dateTime);
+			String dateStr = date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+			if (isToday) {
+				builder.append(i18n(locale, "tour_next_info_today", tour.getTitle(), timeStr, tour.getLocation()));
 				builder.append(" ");
-				AlexaResponse response = new AlexaResponse(builder.toString());
-				response.addAttribute(Attributes.TOUR_UUID, tour.getUuid());
-				response.addAttribute(Attributes.TOUR_DATE, tour.getDateStr());
-				return response;
-
+				builder.append(seatsInfo(locale, ledger.getAvailable(tour)));
+			} else if (isTomorrow) {
+				builder.append(i18n(locale, "tour_next_info_tomorrow", tour.getTitle(), timeStr, tour.getLocation()));
+				builder.append(" ");
+				builder.append(seatsInfo(locale, ledger.getAvailable(tour)));
+			} else {
+				// builder.append(i18n(locale, "tour_next_info_tomorrow"));
+				builder.append(i18n(locale, "tour_next_info_on", tour.getTitle(), dateStr, timeStr, tour.getLocation()));
 			}
-
+			builder.append(" ");
+			AlexaResponse response = new AlexaResponse(builder.toString());
+			response.addAttribute(Attributes.TOUR_UUID, tour.getUuid());
+			response.addAttribute(Attributes.TOUR_DATE, tour.getDateStr());
+			return response;
 		})
+			.defaultIfEmpty(AlexaResponse.create(locale, "tours_empty"))
 			.onErrorReturnItem(AlexaResponse.create(locale, "tours_empty"))
 			.toSingle();
 	}
@@ -237,55 +284,21 @@ public class MeshActions {
 		}
 	}
 
-	private TourInfo findNextTour(JsonArray tours) {
-		TourInfo earliestInfo = null;
-		for (int i = 0; i < tours.size(); i++) {
-			JsonObject tour = tours.getJsonObject(i);
-			JsonObject tourFields = tour.getJsonObject("fields");
-			String uuid = tour.getString("uuid");
-			String title = tourFields.getString("title");
-			String location = tourFields.getString("location");
-			int size = tourFields.getInteger("size");
-			double price = tourFields.getDouble("price");
-			JsonArray dates = tourFields.getJsonArray("dates");
-			if (dates.isEmpty()) {
-				break;
-			}
-			for (int e = 0; e < dates.size(); e++) {
-				JsonObject tourDate = dates.getJsonObject(e);
-				JsonObject tourDateFields = tourDate.getJsonObject("fields");
-				int seats = tourDateFields.getInteger("seats");
-				String dateStr = tourDateFields.getString("date");
-				OffsetDateTime date = null;
-				try {
-					System.out.println("Checking tour {" + dateStr + "} " + title);
-					date = DateUtils.parse(dateStr);
-					boolean isInPast = date.isBefore(DateUtils.now());
-					// Skip full and past tours
-					if (isInPast || seats == 0) {
-						System.out.println("Tour date was in past");
-						continue;
-					}
-					// Check whether this is the first tour in the future or whether the tour is earlier compared to the last found tour.
-					if (earliestInfo == null || date.isBefore(earliestInfo.getDate())) {
-						earliestInfo = new TourInfo(uuid, title, location, date, price, seats, size, dateStr);
-					}
-				} catch (Exception e2) {
-					log.error("Could not parse date {" + dateStr + "}", e2);
-				}
-			}
-		}
-		return earliestInfo;
-
-	}
-
+	/**
+	 * Return the free seats of the first date of the tour.
+	 * 
+	 * @param locale
+	 * @param tourName
+	 *            Spoken name of the tour
+	 * @return
+	 */
 	public Single<AlexaResponse> loadStockLevel(Locale locale, String tourName) {
-		return locateTour(tourName).map(node -> {
-			Long level = getStockLevel(node);
-			if (level == null || level == 0) {
-				return AlexaResponse.create(locale, "tour_out_of_stock", getName(node));
+		return locateTour(locale, tourName).map(tour -> {
+			int level = tour.getDates().isEmpty() ? 0 : ledger.getAvailable(tour.getDates().get(0));
+			if (level <= 0) {
+				return AlexaResponse.create(locale, "tour_out_of_stock", tour.getTitle());
 			} else if (level == 1) {
-				return AlexaResponse.create(locale, "tour_stock_level_one", getName(node));
+				return AlexaResponse.create(locale, "tour_stock_level_one", tour.getTitle());
 			} else {
 				return AlexaResponse.create(locale, "tour_stock_level", String.valueOf(level));
 			}
@@ -295,58 +308,53 @@ public class MeshActions {
 			.toSingle();
 	}
 
+	/**
+	 * Reserve a seat for the tour date. The reservation is acknowledged by the ledger right away and written to Mesh in the background.
+	 * 
+	 * @param locale
+	 * @param uuid
+	 * @param dateStr
+	 * @return
+	 */
 	public Single<AlexaResponse> reserveTourByUuid(Locale locale, String uuid, String dateStr) {
-		return loadTourByUuid(locale, uuid, dateStr).flatMapSingle(tour -> {
-
-			if (tour.getSeats() == 0) {
-				return Single.just(AlexaResponse.create(locale, "tour_out_of_stock", tour.getTitle()));
+		return findTourDate(locale, uuid, dateStr).map(tour -> {
+			switch (ledger.reserve(tour)) {
+			case RESERVED:
+				return AlexaResponse.create(locale, "tour_reserved", tour.getTitle());
+			case SOLD_OUT:
+				return AlexaResponse.create(locale, "tour_out_of_stock", tour.getTitle());
+			default:
+				return AlexaResponse.create(locale, "tour_reserve_error");
 			}
-
-			// Load and update the tour node in both languages
-			return Observable.fromArray("de", "en").flatMapCompletable(lang -> {
-				NodeParameters langParams = new NodeParametersImpl().setLanguages(lang);
-				Maybe<NodeResponse> locatedNode = client
-					.findNodeByUuid(PROJECT, tour.getUuid(), langParams).toMaybe();
-
-				return locatedNode.flatMapCompletable(node -> {
-					NodeUpdateRequest nodeUpdateRequest = node.toRequest();
-					updateRequest(nodeUpdateRequest, tour);
-					System.out.println(nodeUpdateRequest.toJson());
-					// Update and publish the node
-					Completable update = client.updateNode(PROJECT, node.getUuid(), nodeUpdateRequest).toCompletable()
-						.andThen(client.publishNode(PROJECT, node.getUuid(), langParams).toCompletable());
-					return update;
-				});
-			}).andThen(Single.just(AlexaResponse.create(locale, "tour_reserved", tour.getTitle())));
-		}).onErrorReturnItem(AlexaResponse.create(locale, "tour_reserve_error"));
+		})
+			.defaultIfEmpty(AlexaResponse.create(locale, "tour_reserve_error"))
+			.toSingle()
+			.onErrorReturnItem(AlexaResponse.create(locale, "tour_reserve_error"));
 	}
 
-	private void updateRequest(NodeUpdateRequest nodeUpdateRequest, TourInfo tour) {
-		MicronodeFieldList list = nodeUpdateRequest.getFields().getMicronodeFieldList("dates");
-
-		for (MicronodeField date : list.getItems()) {
-			DateFieldImpl currentDateField = date.getFields().getDateField("date");
-			if (currentDateField != null) {
-				OffsetDateTime odt = DateUtils.parse(currentDateField.getDate());
-
-				// Found the next tour. Lets update the count
-				if (tour.getDate().isEqual(odt)) {
-					int currentSeats = date.getFields().getNumberField("seats").getNumber().intValue();
-					int newSeats = currentSeats - 1;
-					date.getFields().put("seats", new NumberFieldImpl().setNumber(newSeats));
+	/**
+	 * Locate the tour date in the catalogue. Mesh is only queried if the date is not yet known to the catalogue.
+	 * 
+	 * @param locale
+	 * @param uuid
+	 * @param dateStr
+	 * @return
+	 */
+	private Maybe<TourInfo> findTourDate(Locale locale, String uuid, String dateStr) {
+		return catalog.findByUuid(locale, uuid).flatMap(tour -> {
+			for (TourInfo info : tour.getDates()) {
+				if (info.getDateStr().equals(dateStr)) {
+					return Maybe.just(info);
 				}
 			}
-		}
-
-		nodeUpdateRequest.getFields().put("dates", list);
+			return Maybe.empty();
+		}).switchIfEmpty(Maybe.defer(() -> loadTourByUuid(locale, uuid, dateStr)));
 	}
 
 	public Single<AlexaResponse> loadTourPriceByUuid(Locale locale, String tourUuid) {
-		return locateTourByUuid(locale, tourUuid).map(node -> {
-			NumberFieldImpl price = node.getFields().getNumberField("price");
-			double value = price.getNumber().doubleValue();
-			String priceStr = String.format("%.2f Euro", value);
-			String name = getName(node);
+		return catalog.findByUuid(locale, tourUuid).map(tour -> {
+			String priceStr = String.format("%.2f Euro", tour.getPrice());
+			String name = tour.getTitle();
 			log.info("Located tour for " + tourUuid + " => " + name);
 			return AlexaResponse.create(locale, "tour_price", name, priceStr);
 		})
@@ -356,11 +364,9 @@ public class MeshActions {
 	}
 
 	public Single<AlexaResponse> loadTourPrice(Locale locale, String tourName) {
-		return locateTour(tourName).map(node -> {
-			NumberFieldImpl price = node.getFields().getNumberField("price");
-			double value = price.getNumber().doubleValue();
-			String priceStr = String.format("%.2f Euro", value);
-			String name = getName(node);
+		return locateTour(locale, tourName).map(tour -> {
+			String priceStr = String.format("%.2f Euro", tour.getPrice());
+			String name = tour.getTitle();
 			log.info("Located tour for " + tourName + " => " + name);
 			return AlexaResponse.create(locale, "tour_price", name, priceStr);
 		})
@@ -369,18 +375,33 @@ public class MeshActions {
 			.toSingle();
 	}
 
-	private Maybe<NodeResponse> locateTourByUuid(Locale locale, String tourUuid) {
-		return client.findNodeByUuid(PROJECT, tourUuid, new NodeParametersImpl().setLanguages(locale.getLanguage())).toMaybe();
-	}
-
-	private Maybe<NodeResponse> locateTour(String tourName) {
+	/**
+	 * Locate the tour by its spoken name. The name is matched against the tour titles of the catalogue. The Elasticsearch search of Mesh is only used if
+	 * no title is similar enough.
+	 * 
+	 * @param locale
+	 * @param tourName
+	 * @return
+	 */
+	private Maybe<Tour> locateTour(Locale locale, String tourName) {
 		if (tourName == null) {
 			return Maybe.empty();
 		}
+		return catalog.names(locale).flatMapMaybe(names -> {
+			Tour tour = names.find(tourName);
+			if (tour != null) {
+				return Maybe.just(tour);
+			}
+			log.info("No tour title is similar to {" + tourName + "}. Searching in Mesh.");
+			return searchTour(tourName).flatMap(node -> catalog.findByUuid(locale, node.getUuid()));
+		});
+	}
+
+	private Maybe<NodeResponse> searchTour(String tourName) {
 		JsonObject query = new JsonObject(searchTourQuery.encode());
 		query.getJsonObject("query").getJsonObject("bool").getJsonArray("must").getJsonObject(1).getJsonObject("match").put("fields.title",
 			tourName.toLowerCase());
-		log.info("Sending search request:\n\n" + query.encodePrettily());
+		log.debug("Sending search request:\n\n" + query.encodePrettily());
 		return client.searchNodes(PROJECT, query.encode()).toMaybe()
 			.onErrorComplete()
 			.defaultIfEmpty(new NodeListResponse())
@@ -395,18 +416,4 @@ public class MeshActions {
 			});
 	}
 
-	private Long getStockLevel(NodeResponse response) {
-		MicronodeFieldList dates = response.getFields().getMicronodeFieldList("dates");
-		MicronodeField first = dates.getItems().get(0);
-		Number number = first.getFields().getNumberField("seats").getNumber();
-		if (number == null) {
-			return null;
-		}
-		return number.longValue();
-	}
-
-	private String getName(NodeResponse node) {
-		return node.getFields().getStringField("title").getString();
-	}
-
 }
@@ -0,0 +1,99 @@
+package com.gentics.mesh.alexa.action;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.gentics.mesh.alexa.dagger.config.SkillConfig;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.RequestOptions;
+import io.vertx.core.http.WebSocket;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Listener for the node events of the Mesh eventbus. The listener connects to the eventbus websocket of Mesh and passes the body of each node event
+ * to the handler. The connection will be re-established when it gets closed. The listener authenticates with the configured API key.
+ */
+public class MeshEventListener {
+
+	private static final Logger log = LoggerFactory.getLogger(MeshEventListener.class);
+
+	private static final String EVENTBUS_PATH = "/api/v2/eventbus/websocket";
+
+	private static final List<String> ADDRESSES = Arrays.asList("mesh.node.created", "mesh.node.updated", "mesh.node.published",
+		"mesh.node.unpublished", "mesh.node.deleted");
+
+	private static final long PING_INTERVAL = 10_000;
+
+	private static final long RECONNECT_DELAY = 5_000;
+
+	private final Vertx vertx;
+
+	private final SkillConfig config;
+
+	private final HttpClient client;
+
+	private final Consumer<JsonObject> handler;
+
+	private long pingTimer = -1;
+
+	public MeshEventListener(Vertx vertx, SkillConfig config, Consumer<JsonObject> handler) {
+		this.vertx = vertx;
+		this.config = config;
+		this.handler = handler;
+		this.client = vertx.createHttpClient(new HttpClientOptions().setSsl(config.isMeshServerSslFlag()));
+	}
+
+	/**
+	 * Connect to the eventbus of Mesh.
+	 */
+	public void connect() {
+		RequestOptions options = new RequestOptions()
+			.setHost(config.getMeshServerHost())
+			.setPort(config.getMeshServerPort())
+			.setSsl(config.isMeshServerSslFlag())
+			.setURI(EVENTBUS_PATH);
+		MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+		headers.add("Authorization", "Bearer " + config.getMeshApiKey());
+		client.websocket(options, headers, this::onConnect, err -> {
+			log.warn("Could not connect to the Mesh eventbus. Retrying in {" + RECONNECT_DELAY + "} ms", err);
+			reconnect();
+		});
+	}
+
+	private void onConnect(WebSocket socket) {
+		log.info("Connected to the Mesh eventbus");
+		for (String address : ADDRESSES) {
+			socket.writeTextMessage(new JsonObject().put("type", "register").put("address", address).encode());
+		}
+		// The eventbus bridge closes connections which don't send pings
+		pingTimer = vertx.setPeriodic(PING_INTERVAL, id -> {
+			socket.writeTextMessage(new JsonObject().put("type", "ping").encode());
+		});
+		socket.textMessageHandler(msg -> {
+			JsonObject json = new JsonObject(msg);
+			JsonObject body = json.getJsonObject("body");
+			if (body != null) {
+				handler.accept(body);
+			}
+		});
+		socket.closeHandler(v -> {
+			log.warn("Connection to the Mesh eventbus was closed. Reconnecting in {" + RECONNECT_DELAY + "} ms");
+			reconnect();
+		});
+	}
+
+	private void reconnect() {
+		if (pingTimer != -1) {
+			vertx.cancelTimer(pingTimer);
+			pingTimer = -1;
+		}
+		vertx.setTimer(RECONNECT_DELAY, id -> connect());
+	}
+}
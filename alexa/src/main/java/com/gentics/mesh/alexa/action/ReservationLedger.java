@@ -0,0 +1,291 @@
+package com.gentics.mesh.alexa.action;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.gentics.mesh.alexa.model.TourInfo;
+import com.gentics.mesh.alexa.util.DateUtils;
+
+import io.reactivex.Maybe;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Write-behind ledger for seat reservations. Reservations are acknowledged from an in-memory seat counter per tour date and recorded in a local log
+ * before they are acknowledged. The reservations are periodically flushed to Mesh, coalesced into one update per tour. Reservations which have not
+ * been flushed are replayed from the log on startup. Each line of the log contains tab separated values:
+ * 
+ * <pre>
+ * R	tourUuid	date          - Seat was reserved
+ * F	tourUuid	date	count - Reservations were written to Mesh
+ * </pre>
+ */
+public class ReservationLedger {
+
+	private static final Logger log = LoggerFactory.getLogger(ReservationLedger.class);
+
+	public enum Result {
+		RESERVED, SOLD_OUT
+	}
+
+	private final TourReservations reservations;
+
+	private final File file;
+
+	private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+	private final AtomicBoolean flushing = new AtomicBoolean();
+
+	private FileChannel channel;
+
+	/**
+	 * Reservations of the log which have not yet been written to Mesh. Guarded by the ledger monitor which also guards the log.
+	 */
+	private long outstanding;
+
+	/**
+	 * Create the ledger and replay the reservations of the log which have not yet been written to Mesh.
+	 * 
+	 * @param reservations
+	 * @param file
+	 * @throws IOException
+	 */
+	public ReservationLedger(TourReservations reservations, File file) throws IOException {
+		this.reservations = reservations;
+		this.file = file;
+		if (file.exists()) {
+			for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+				String[] parts = line.split("\t");
+				if (parts.length == 3 && "R".equals(parts[0])) {
+					slot(parts[1], parts[2]).pending++;
+				} else if (parts.length == 4 && "F".equals(parts[0])) {
+					slot(parts[1], parts[2]).pending -= Integer.parseInt(parts[3]);
+				} else if (!line.isEmpty()) {
+					log.warn("Ignoring invalid reservation log entry {" + line + "}");
+				}
+			}
+			slots.values().removeIf(slot -> slot.pending <= 0);
+			for (Slot slot : slots.values()) {
+				outstanding += slot.pending;
+			}
+			if (!slots.isEmpty()) {
+				log.info("Replaying reservations of {" + slots.size() + "} tour dates which have not been written to Mesh");
+			}
+		}
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Reserve a seat for the tour date. The reservation is durable once this method returns.
+	 * 
+	 * @param tour
+	 *            Tour date. The seats of the tour are used to initialize the counter of the tour date.
+	 * @return
+	 * @throws IOException
+	 */
+	public Result reserve(TourInfo tour) throws IOException {
+		Slot slot = slot(tour.getUuid(), tour.getDateStr());
+		synchronized (slot) {
+			if (slot.available == null) {
+				slot.available = tour.getSeats() - slot.pending - slot.inFlight;
+			}
+			if (slot.available <= 0) {
+				return Result.SOLD_OUT;
+			}
+			logReserved(slot);
+			slot.available--;
+			slot.pending++;
+			return Result.RESERVED;
+		}
+	}
+
+	/**
+	 * Return the seats which are left for the tour date.
+	 * 
+	 * @param tour
+	 * @return Seats which are left or the seats of the tour if the ledger has no counter for the tour date
+	 */
+	public int getAvailable(TourInfo tour) {
+		Slot slot = slots.get(key(tour.getUuid(), tour.getDateStr()));
+		if (slot == null) {
+			return tour.getSeats();
+		}
+		synchronized (slot) {
+			return slot.available == null ? tour.getSeats() - slot.pending - slot.inFlight : slot.available;
+		}
+	}
+
+	/**
+	 * Write the pending reservations to Mesh. Reservations of the same tour are combined into a single update. Failed updates will be retried on the next
+	 * flush, as well as committed updates which could not be propagated to all languages.
+	 * 
+	 * @return Number of tours which have been written to Mesh
+	 */
+	public Single<Integer> flush() {
+		return Single.defer(() -> {
+			if (!flushing.compareAndSet(false, true)) {
+				return Single.just(0);
+			}
+			Map<String, List<Flush>> tours = new HashMap<>();
+			for (Slot slot : slots.values()) {
+				synchronized (slot) {
+					if (slot.pending > 0) {
+						Flush flush = new Flush(slot, slot.pending);
+						slot.inFlight += slot.pending;
+						slot.pending = 0;
+						tours.computeIfAbsent(slot.tourUuid, k -> new ArrayList<>()).add(flush);
+					}
+				}
+			}
+			return reservations.retryPropagation()
+				.andThen(Observable.fromIterable(tours.entrySet()))
+				.flatMapMaybe(entry -> flushTour(entry.getKey(), entry.getValue()))
+				.count()
+				.map(Long::intValue)
+				.doFinally(() -> {
+					compact();
+					flushing.set(false);
+				});
+		});
+	}
+
+	private Maybe<String> flushTour(String tourUuid, List<Flush> flushes) {
+		Map<OffsetDateTime, Integer> reserved = new HashMap<>();
+		for (Flush flush : flushes) {
+			reserved.put(flush.slot.date, flush.count);
+		}
+		// Only failures of the Mesh update are rolled back. The reservations succeed once Mesh committed the seats, even if the propagation to the other
+		// languages fails, so that they are never subtracted twice.
+		return reservations.reserve(tourUuid, reserved).toMaybe().onErrorResumeNext(err -> {
+			log.error("Could not write reservations of tour {" + tourUuid + "} to Mesh. Retrying with the next flush.", err);
+			for (Flush flush : flushes) {
+				Slot slot = flush.slot;
+				synchronized (slot) {
+					slot.inFlight -= flush.count;
+					slot.pending += flush.count;
+				}
+			}
+			return Maybe.empty();
+		}).map(seats -> {
+			for (Flush flush : flushes) {
+				Slot slot = flush.slot;
+				synchronized (slot) {
+					logFlushed(slot, flush.count);
+					slot.inFlight -= flush.count;
+					// Sync the counter with Mesh since the seats may also have been changed by other writers
+					Integer committed = seats.get(slot.date);
+					if (committed != null) {
+						slot.available = committed - slot.pending - slot.inFlight;
+					}
+				}
+			}
+			log.info("Wrote reservations of tour {" + tourUuid + "} to Mesh");
+			return tourUuid;
+		});
+	}
+
+	/**
+	 * Truncate the log once all reservations have been written to Mesh.
+	 */
+	private synchronized void compact() {
+		if (outstanding > 0) {
+			return;
+		}
+		try {
+			channel.truncate(0);
+		} catch (IOException e) {
+			log.error("Could not truncate reservation log {" + file + "}", e);
+		}
+	}
+
+	private synchronized void logReserved(Slot slot) throws IOException {
+		append("R\t" + slot.tourUuid + "\t" + slot.dateStr);
+		// The reservation must be durable before it gets acknowledged
+		channel.force(false);
+		outstanding++;
+	}
+
+	/**
+	 * Record that the reservations have been written to Mesh. A failure to append the line is only logged since the seats are already committed.
+	 */
+	private synchronized void logFlushed(Slot slot, int count) {
+		outstanding -= count;
+		try {
+			append("F\t" + slot.tourUuid + "\t" + slot.dateStr + "\t" + count);
+		} catch (IOException e) {
+			log.error("Could not log the flushed reservations of tour {" + slot.tourUuid + "} {" + slot.dateStr + "}. They would be replayed after a restart.",
+				e);
+		}
+	}
+
+	private void append(String line) throws IOException {
+		ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	private Slot slot(String tourUuid, String dateStr) {
+		return slots.computeIfAbsent(key(tourUuid, dateStr), k -> new Slot(tourUuid, dateStr));
+	}
+
+	private static String key(String tourUuid, String dateStr) {
+		return tourUuid + "\t" + dateStr;
+	}
+
+	/**
+	 * Seat counter of a tour date.
+	 */
+	private static class Slot {
+
+		private final String tourUuid;
+		private final String dateStr;
+		private final OffsetDateTime date;
+
+		/**
+		 * Seats which can still be reserved. Initialized lazily by the first reservation.
+		 */
+		private Integer available;
+
+		/**
+		 * Reservations which have not yet been written to Mesh.
+		 */
+		private int pending;
+
+		/**
+		 * Reservations which are currently being written to Mesh.
+		 */
+		private int inFlight;
+
+		private Slot(String tourUuid, String dateStr) {
+			this.tourUuid = tourUuid;
+			this.dateStr = dateStr;
+			this.date = DateUtils.parse(dateStr);
+		}
+	}
+
+	private static class Flush {
+
+		private final Slot slot;
+		private final int count;
+
+		private Flush(Slot slot, int count) {
+			this.slot = slot;
+			this.count = count;
+		}
+	}
+}
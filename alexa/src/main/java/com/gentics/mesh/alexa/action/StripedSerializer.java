@@ -0,0 +1,43 @@
+package com.gentics.mesh.alexa.action;
+
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.reactivex.subjects.CompletableSubject;
+
+/**
+ * Serializes asynchronous operations per key without blocking any thread. Keys are mapped onto a fixed amount of stripes. Each stripe keeps the
+ * completion of its last operation and the next operation of the stripe is only subscribed once that completion has been signalled.
+ */
+public class StripedSerializer {
+
+	private final Completable[] tails;
+
+	public StripedSerializer(int stripes) {
+		this.tails = new Completable[stripes];
+		for (int i = 0; i < stripes; i++) {
+			tails[i] = Completable.complete();
+		}
+	}
+
+	/**
+	 * Run the operation once all previously serialized operations of the stripe of the key have terminated.
+	 * 
+	 * @param key
+	 * @param operation
+	 * @return
+	 */
+	public <T> Single<T> serialize(String key, Single<T> operation) {
+		return Single.defer(() -> {
+			int stripe = Math.floorMod(key.hashCode(), tails.length);
+			CompletableSubject done = CompletableSubject.create();
+			Completable previous;
+			synchronized (tails) {
+				previous = tails[stripe];
+				tails[stripe] = done;
+			}
+			Completable predecessor = previous.onErrorComplete();
+			// A disposed operation must not release the stripe before its predecessor has terminated
+			return predecessor.andThen(operation).doFinally(() -> predecessor.subscribe(done::onComplete));
+		});
+	}
+}
@@ -0,0 +1,153 @@
+package com.gentics.mesh.alexa.action;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.gentics.mesh.alexa.model.Tour;
+
+import io.reactivex.Maybe;
+import io.reactivex.Single;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * In-memory catalogue of all tours per language. The tours of a language are loaded once and shared by all requests until they get refreshed due to a
+ * Mesh event or until the TTL expired. Concurrent requests for a language which is currently being loaded share the same load.
+ */
+public class TourCatalog {
+
+	private static final Logger log = LoggerFactory.getLogger(TourCatalog.class);
+
+	private final Function<String, Single<List<Tour>>> loader;
+
+	private final long ttl;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a new catalogue.
+	 * 
+	 * @param loader
+	 *            Function which loads the tours for the given language
+	 * @param ttl
+	 *            Time in milliseconds after which the tours of a language will be reloaded
+	 */
+	public TourCatalog(Function<String, Single<List<Tour>>> loader, long ttl) {
+		this.loader = loader;
+		this.ttl = ttl;
+	}
+
+	/**
+	 * Return all tours for the language of the locale.
+	 * 
+	 * @param locale
+	 * @return
+	 */
+	public Single<List<Tour>> tours(Locale locale) {
+		return entry(locale).tours;
+	}
+
+	/**
+	 * Return the time ordered index of all tour dates for the language of the locale. The index is built once per load of the tours.
+	 * 
+	 * @param locale
+	 * @return
+	 */
+	public Single<TourSchedule> schedule(Locale locale) {
+		return entry(locale).schedule;
+	}
+
+	/**
+	 * Return the index of the tour titles for the language of the locale. The index is built once per load of the tours.
+	 * 
+	 * @param locale
+	 * @return
+	 */
+	public Single<TourNameIndex> names(Locale locale) {
+		return entry(locale).names;
+	}
+
+	private Entry entry(Locale locale) {
+		return entries.compute(locale.getLanguage(), (key, current) -> {
+			if (current != null && !current.isExpired()) {
+				return current;
+			}
+			return new Entry(key);
+		});
+	}
+
+	/**
+	 * Locate the tour with the given uuid.
+	 * 
+	 * @param locale
+	 * @param uuid
+	 * @return
+	 */
+	public Maybe<Tour> findByUuid(Locale locale, String uuid) {
+		return tours(locale).flatMapMaybe(tours -> {
+			for (Tour tour : tours) {
+				if (tour.getUuid().equals(uuid)) {
+					return Maybe.just(tour);
+				}
+			}
+			return Maybe.empty();
+		});
+	}
+
+	/**
+	 * Reload the tours of the language. Only languages which have already been requested will be loaded.
+	 * 
+	 * @param lang
+	 */
+	public void refresh(String lang) {
+		if (entries.containsKey(lang)) {
+			Entry entry = new Entry(lang);
+			entries.put(lang, entry);
+			// Load the tours right away so that the next request can be answered from memory
+			entry.tours.subscribe(tours -> {
+			}, err -> {
+			});
+		}
+	}
+
+	/**
+	 * Reload the tours of all languages.
+	 */
+	public void refreshAll() {
+		for (String lang : entries.keySet()) {
+			refresh(lang);
+		}
+	}
+
+	private class Entry {
+
+		private final long created = System.currentTimeMillis();
+
+		private final Single<List<Tour>> tours;
+
+		private final Single<TourSchedule> schedule;
+
+		private final Single<TourNameIndex> names;
+
+		private Entry(String lang) {
+			this.tours = loader.apply(lang)
+				.doOnSuccess(list -> {
+					log.info("Loaded {" + list.size() + "} tours for language {" + lang + "}");
+				})
+				.doOnError(err -> {
+					log.error("Could not load tours for language {" + lang + "}", err);
+					// Don't keep failed loads
+					entries.remove(lang, this);
+				}).cache();
+			this.schedule = tours.map(TourSchedule::new).cache();
+			this.names = tours.map(list -> new TourNameIndex(list, lang)).cache();
+		}
+
+		private boolean isExpired() {
+			return System.currentTimeMillis() - created > ttl;
+		}
+	}
+}
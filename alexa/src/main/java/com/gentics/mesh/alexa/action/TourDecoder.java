@@ -0,0 +1,265 @@
+package com.gentics.mesh.alexa.action;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.gentics.mesh.alexa.model.Tour;
+import com.gentics.mesh.alexa.model.TourInfo;
+import com.gentics.mesh.alexa.util.DateUtils;
+
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Streaming decoder for the GraphQL responses of the tour queries. The tours are read directly from the token stream without building an intermediate
+ * JSON tree. Unknown fields are skipped.
+ */
+public final class TourDecoder {
+
+	private static final Logger log = LoggerFactory.getLogger(TourDecoder.class);
+
+	private static final JsonFactory FACTORY = new JsonFactory();
+
+	private TourDecoder() {
+	}
+
+	/**
+	 * Decode the response of the <code>loadAllToursInfo</code> query.
+	 * 
+	 * @param json
+	 *            Response body
+	 * @return
+	 * @throws IOException
+	 */
+	public static List<Tour> decodeTours(String json) throws IOException {
+		List<Tour> tours = new ArrayList<>();
+		try (JsonParser parser = FACTORY.createParser(json)) {
+			readData(parser, data -> {
+				while (data.nextToken() == JsonToken.FIELD_NAME) {
+					String name = data.getCurrentName();
+					data.nextToken();
+					if ("schema".equals(name) && data.currentToken() == JsonToken.START_OBJECT) {
+						readSchema(data, tours);
+					} else {
+						data.skipChildren();
+					}
+				}
+			});
+		}
+		return tours;
+	}
+
+	/**
+	 * Decode the response of the <code>loadTourByUuid</code> query.
+	 * 
+	 * @param json
+	 *            Response body
+	 * @return Tour or null if the node could not be found
+	 * @throws IOException
+	 */
+	public static Tour decodeTour(String json) throws IOException {
+		List<Tour> tours = new ArrayList<>();
+		try (JsonParser parser = FACTORY.createParser(json)) {
+			readData(parser, data -> {
+				while (data.nextToken() == JsonToken.FIELD_NAME) {
+					String name = data.getCurrentName();
+					data.nextToken();
+					if ("node".equals(name) && data.currentToken() == JsonToken.START_OBJECT) {
+						tours.add(readTour(data));
+					} else {
+						data.skipChildren();
+					}
+				}
+			});
+		}
+		return tours.isEmpty() ? null : tours.get(0);
+	}
+
+	/**
+	 * Locate the data object of the response and hand the parser to the reader. The reader is positioned on the start of the data object. GraphQL errors
+	 * are only raised if the response contains no data.
+	 */
+	private static void readData(JsonParser parser, DataReader reader) throws IOException {
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			throw new IOException("Response is not a JSON object");
+		}
+		boolean hasData = false;
+		String errors = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if ("data".equals(name) && token == JsonToken.START_OBJECT) {
+				reader.read(parser);
+				hasData = true;
+			} else if ("errors".equals(name) && token == JsonToken.START_ARRAY) {
+				errors = readErrors(parser);
+			} else {
+				parser.skipChildren();
+			}
+		}
+		if (errors != null) {
+			if (!hasData) {
+				throw new IOException("GraphQL query failed: " + errors);
+			}
+			log.warn("GraphQL query returned errors: " + errors);
+		}
+	}
+
+	private static String readErrors(JsonParser parser) throws IOException {
+		List<String> messages = new ArrayList<>();
+		while (parser.nextToken() == JsonToken.START_OBJECT) {
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String name = parser.getCurrentName();
+				parser.nextToken();
+				if ("message".equals(name)) {
+					messages.add(parser.getValueAsString());
+				} else {
+					parser.skipChildren();
+				}
+			}
+		}
+		return messages.toString();
+	}
+
+	private static void readSchema(JsonParser parser, List<Tour> tours) throws IOException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			parser.nextToken();
+			if ("nodes".equals(name) && parser.currentToken() == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String nodesField = parser.getCurrentName();
+					parser.nextToken();
+					if ("elements".equals(nodesField) && parser.currentToken() == JsonToken.START_ARRAY) {
+						for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+							if (token == JsonToken.START_OBJECT) {
+								tours.add(readTour(parser));
+							} else {
+								parser.skipChildren();
+							}
+						}
+					} else {
+						parser.skipChildren();
+					}
+				}
+			} else {
+				parser.skipChildren();
+			}
+		}
+	}
+
+	private static Tour readTour(JsonParser parser) throws IOException {
+		String uuid = null;
+		TourFields fields = new TourFields();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			parser.nextToken();
+			if ("uuid".equals(name)) {
+				uuid = parser.getValueAsString();
+			} else if ("fields".equals(name) && parser.currentToken() == JsonToken.START_OBJECT) {
+				readTourFields(parser, fields);
+			} else {
+				parser.skipChildren();
+			}
+		}
+		// The dates are read before the uuid may be known and are thus assembled here
+		List<TourInfo> infos = new ArrayList<>(fields.dates.size());
+		for (TourDate date : fields.dates) {
+			try {
+				OffsetDateTime parsed = DateUtils.parse(date.dateStr);
+				infos.add(new TourInfo(uuid, fields.title, fields.location, parsed, fields.price, date.seats, fields.size, date.dateStr));
+			} catch (Exception e) {
+				log.error("Could not parse date {" + date.dateStr + "} of tour {" + uuid + "}", e);
+			}
+		}
+		return new Tour(uuid, fields.title, fields.location, fields.description, fields.price, fields.size,
+			infos.isEmpty() ? Collections.emptyList() : infos);
+	}
+
+	private static void readTourFields(JsonParser parser, TourFields fields) throws IOException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			parser.nextToken();
+			switch (name) {
+			case "title":
+				fields.title = parser.getValueAsString();
+				break;
+			case "location":
+				fields.location = parser.getValueAsString();
+				break;
+			case "description":
+				fields.description = parser.getValueAsString();
+				break;
+			case "price":
+				fields.price = parser.getValueAsDouble();
+				break;
+			case "size":
+				fields.size = parser.getValueAsInt();
+				break;
+			case "dates":
+				if (parser.currentToken() == JsonToken.START_ARRAY) {
+					for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+						if (token == JsonToken.START_OBJECT) {
+							readTourDate(parser, fields.dates);
+						} else {
+							parser.skipChildren();
+						}
+					}
+				}
+				break;
+			default:
+				parser.skipChildren();
+			}
+		}
+	}
+
+	private static void readTourDate(JsonParser parser, List<TourDate> dates) throws IOException {
+		TourDate date = new TourDate();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String name = parser.getCurrentName();
+			parser.nextToken();
+			if ("fields".equals(name) && parser.currentToken() == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String field = parser.getCurrentName();
+					parser.nextToken();
+					if ("date".equals(field)) {
+						date.dateStr = parser.getValueAsString();
+					} else if ("seats".equals(field)) {
+						date.seats = parser.getValueAsInt();
+					} else {
+						parser.skipChildren();
+					}
+				}
+			} else {
+				parser.skipChildren();
+			}
+		}
+		if (date.dateStr != null) {
+			dates.add(date);
+		}
+	}
+
+	@FunctionalInterface
+	private interface DataReader {
+		void read(JsonParser parser) throws IOException;
+	}
+
+	private static class TourFields {
+		private String title;
+		private String location;
+		private String description;
+		private double price;
+		private int size;
+		private final List<TourDate> dates = new ArrayList<>();
+	}
+
+	private static class TourDate {
+		private String dateStr;
+		private int seats;
+	}
+}
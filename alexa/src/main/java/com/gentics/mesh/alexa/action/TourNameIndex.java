@@ -0,0 +1,278 @@
+package com.gentics.mesh.alexa.action;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+import com.gentics.mesh.alexa.model.Tour;
+
+/**
+ * Index of the tour titles of a language. Speech recognized tour names are matched against the titles by normalized tokens, a phonetic key and the edit
+ * distance. Stopwords of the language are ignored so that articles don't match every title. The index is built once per catalogue load and is
+ * immutable afterwards.
+ */
+public class TourNameIndex {
+
+	/**
+	 * Minimum score a tour must reach to be considered a match.
+	 */
+	public static final double MIN_SCORE = 0.7;
+
+	private static final double PHONETIC_SCORE = 0.9;
+
+	private static final char SILENT = '-';
+
+	private static final Map<String, Set<String>> STOPWORDS = new HashMap<>();
+
+	static {
+		STOPWORDS.put("en", new HashSet<>(Arrays.asList("a", "an", "the", "of", "and", "to", "in", "on", "at", "for", "with", "about")));
+		STOPWORDS.put("de", new HashSet<>(Arrays.asList("der", "die", "das", "den", "dem", "des", "ein", "eine", "einer", "eines", "einem", "einen", "und",
+			"zu", "zum", "zur", "im", "in", "am", "an", "auf", "mit", "von", "vom", "fur", "uber")));
+	}
+
+	private final List<Entry> entries = new ArrayList<>();
+
+	private final Set<String> stopwords;
+
+	/**
+	 * Create an index which ignores the stopwords of all supported languages.
+	 * 
+	 * @param tours
+	 */
+	public TourNameIndex(List<Tour> tours) {
+		this(tours, null);
+	}
+
+	/**
+	 * Create an index for the tours of the language.
+	 * 
+	 * @param tours
+	 * @param lang
+	 *            Language of the titles. The stopwords of all supported languages are used for unknown languages.
+	 */
+	public TourNameIndex(List<Tour> tours, String lang) {
+		if (lang != null && STOPWORDS.containsKey(lang)) {
+			this.stopwords = STOPWORDS.get(lang);
+		} else {
+			this.stopwords = new HashSet<>();
+			STOPWORDS.values().forEach(stopwords::addAll);
+		}
+		for (Tour tour : tours) {
+			if (tour.getTitle() != null) {
+				String[] tokens = removeStopwords(normalize(tour.getTitle()));
+				if (tokens.length > 0) {
+					entries.add(new Entry(tour, tokens));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Locate the tour which matches the spoken name best.
+	 * 
+	 * @param name
+	 * @return Best matching tour or null if no tour reached the {@link #MIN_SCORE}. Ties are won by the title which is most similar to the whole query
+	 *         and then by the first indexed tour.
+	 */
+	public Tour find(String name) {
+		if (name == null) {
+			return null;
+		}
+		String[] query = removeStopwords(normalize(name));
+		if (query.length == 0) {
+			return null;
+		}
+		String[] queryPhonetics = new String[query.length];
+		for (int i = 0; i < query.length; i++) {
+			queryPhonetics[i] = phonetic(query[i]);
+		}
+		String phrase = String.join("", query);
+		Tour best = null;
+		double bestScore = 0;
+		double bestPhraseScore = 0;
+		for (Entry entry : entries) {
+			double score = score(query, queryPhonetics, entry);
+			if (score < MIN_SCORE || score < bestScore) {
+				continue;
+			}
+			double phraseScore = distanceScore(phrase, entry.phrase);
+			if (best == null || score > bestScore || phraseScore > bestPhraseScore) {
+				best = entry.tour;
+				bestScore = score;
+				bestPhraseScore = phraseScore;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Remove the stopwords from the tokens. The tokens are kept as they are if they only consist of stopwords.
+	 */
+	private String[] removeStopwords(String[] tokens) {
+		List<String> kept = new ArrayList<>();
+		for (String token : tokens) {
+			if (!stopwords.contains(token)) {
+				kept.add(token);
+			}
+		}
+		if (kept.isEmpty()) {
+			return tokens;
+		}
+		return kept.toArray(new String[kept.size()]);
+	}
+
+	/**
+	 * Score the query against the title. Each query token is compared with the best matching title token. The joined query is compared with the title
+	 * and its tokens as well so that names which were split differently by the speech recognition still match.
+	 */
+	private static double score(String[] query, String[] queryPhonetics, Entry entry) {
+		double sum = 0;
+		for (int q = 0; q < query.length; q++) {
+			double best = 0;
+			for (int i = 0; i < entry.tokens.length; i++) {
+				best = Math.max(best, similarity(query[q], queryPhonetics[q], entry.tokens[i], entry.phonetics[i]));
+			}
+			sum += best;
+		}
+		double score = sum / query.length;
+		if (query.length > 1) {
+			String phrase = String.join("", query);
+			score = Math.max(score, similarity(phrase, entry.phrase));
+			for (String titleToken : entry.tokens) {
+				score = Math.max(score, similarity(phrase, titleToken));
+			}
+		}
+		return score;
+	}
+
+	private static double similarity(String token, String phonetic, String titleToken, String titlePhonetic) {
+		if (token.equals(titleToken)) {
+			return 1;
+		}
+		double distanceScore = similarity(token, titleToken);
+		if (distanceScore < PHONETIC_SCORE && phonetic.equals(titlePhonetic)) {
+			return PHONETIC_SCORE;
+		}
+		return distanceScore;
+	}
+
+	/**
+	 * Return the unbounded edit distance relative to the longer string. Used to rank titles which reached the same score.
+	 */
+	private static double distanceScore(String a, String b) {
+		int maxLength = Math.max(a.length(), b.length());
+		return maxLength == 0 ? 1 : 1 - (double) StringUtils.getLevenshteinDistance(a, b) / maxLength;
+	}
+
+	/**
+	 * Return the similarity of the two strings based on the edit distance. The result is between 0 and 1.
+	 */
+	private static double similarity(String a, String b) {
+		int maxLength = Math.max(a.length(), b.length());
+		if (maxLength == 0) {
+			return 1;
+		}
+		// Distances beyond the threshold would not reach the minimum score anyway
+		int threshold = (int) (maxLength * (1 - MIN_SCORE));
+		int distance = StringUtils.getLevenshteinDistance(a, b, threshold);
+		if (distance < 0) {
+			return 0;
+		}
+		return 1 - (double) distance / maxLength;
+	}
+
+	/**
+	 * Split the text into lower case tokens without diacritics and punctuation.
+	 * 
+	 * @param text
+	 * @return
+	 */
+	static String[] normalize(String text) {
+		String normalized = Normalizer.normalize(text.toLowerCase(Locale.ROOT).replace("\u00df", "ss"), Normalizer.Form.NFD)
+			.replaceAll("\\p{M}", "")
+			.replaceAll("[^\\p{Alnum}]+", " ")
+			.trim();
+		return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+	}
+
+	/**
+	 * Compute a simple phonetic key of the token. Letters which sound alike are mapped to the same code, vowels after the first letter are dropped and
+	 * repeated codes are collapsed. The key is deliberately coarse since it is only used to rescue near misses of the speech recognition.
+	 * 
+	 * @param token
+	 * @return
+	 */
+	static String phonetic(String token) {
+		StringBuilder key = new StringBuilder();
+		char last = 0;
+		for (int i = 0; i < token.length(); i++) {
+			char code = code(token.charAt(i));
+			if (i == 0) {
+				key.append(code == SILENT ? Character.toUpperCase(token.charAt(0)) : code);
+			} else if (code != SILENT && code != last) {
+				key.append(code);
+			}
+			last = code;
+		}
+		return key.toString();
+	}
+
+	private static char code(char c) {
+		switch (c) {
+		case 'b':
+		case 'f':
+		case 'p':
+		case 'v':
+		case 'w':
+			return 'B';
+		case 'c':
+		case 'g':
+		case 'j':
+		case 'k':
+		case 'q':
+		case 's':
+		case 'x':
+		case 'z':
+			return 'G';
+		case 'd':
+		case 't':
+			return 'D';
+		case 'l':
+			return 'L';
+		case 'm':
+		case 'n':
+			return 'M';
+		case 'r':
+			return 'R';
+		default:
+			// Vowels, h and y carry no phonetic weight. Digits are kept as they are.
+			return Character.isDigit(c) ? c : SILENT;
+		}
+	}
+
+	private static class Entry {
+
+		private final Tour tour;
+		private final String[] tokens;
+		private final String[] phonetics;
+		private final String phrase;
+
+		private Entry(Tour tour, String[] tokens) {
+			this.tour = tour;
+			this.tokens = tokens;
+			this.phonetics = new String[tokens.length];
+			for (int i = 0; i < tokens.length; i++) {
+				phonetics[i] = phonetic(tokens[i]);
+			}
+			this.phrase = String.join("", tokens);
+		}
+	}
+}
@@ -0,0 +1,241 @@
+package com.gentics.mesh.alexa.action;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.gentics.mesh.alexa.util.DateUtils;
+import com.gentics.mesh.core.rest.node.NodeResponse;
+import com.gentics.mesh.core.rest.node.NodeUpdateRequest;
+import com.gentics.mesh.core.rest.node.field.MicronodeField;
+import com.gentics.mesh.core.rest.node.field.impl.DateFieldImpl;
+import com.gentics.mesh.core.rest.node.field.impl.NumberFieldImpl;
+import com.gentics.mesh.core.rest.node.field.list.MicronodeFieldList;
+import com.gentics.mesh.parameter.client.NodeParametersImpl;
+import com.gentics.mesh.rest.client.MeshRestClient;
+import com.gentics.mesh.rest.client.MeshRestClientMessageException;
+
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.Single;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Writes seat reservations to Mesh. Updates of the same tour are serialized locally by a {@link StripedSerializer} which does not block any thread.
+ * The seat counts of the default language are the authoritative values and are updated using the node version for optimistic locking. Conflicting
+ * updates of other writers are retried with a fresh read. The committed seat counts are then written to all other languages so that the languages
+ * can't diverge. A failed propagation does not fail the reservation since the seats are already committed. It is retried by
+ * {@link #retryPropagation()} instead.
+ */
+public class TourReservations {
+
+	private static final Logger log = LoggerFactory.getLogger(TourReservations.class);
+
+	private static final String DEFAULT_LANGUAGE = "en";
+
+	private static final List<String> LANGUAGES = Arrays.asList("en", "de");
+
+	private static final int MAX_RETRIES = 5;
+
+	private static final long RETRY_DELAY = 50;
+
+	private static final int STRIPES = 32;
+
+	private final MeshRestClient client;
+
+	private final String project;
+
+	private final StripedSerializer serializer = new StripedSerializer(STRIPES);
+
+	/**
+	 * Committed seat counts per tour which could not be written to the other languages or published.
+	 */
+	private final Map<String, Map<OffsetDateTime, Integer>> unpropagated = new ConcurrentHashMap<>();
+
+	public TourReservations(MeshRestClient client, String project) {
+		this.client = client;
+		this.project = project;
+	}
+
+	/**
+	 * Subtract the reserved seats from the dates of the tour and publish the tour. The seats of a date will never drop below zero.
+	 * 
+	 * @param tourUuid
+	 * @param reserved
+	 *            Amount of reserved seats per tour date
+	 * @return Seats which are left per tour date after the update. Dates which could not be found are omitted. The result is emitted once the default
+	 *         language has been updated, even if the propagation to the other languages failed.
+	 */
+	public Single<Map<OffsetDateTime, Integer>> reserve(String tourUuid, Map<OffsetDateTime, Integer> reserved) {
+		return serializer.serialize(tourUuid, commit(tourUuid, reserved).flatMap(seats -> {
+			// This propagation supersedes any failed one since it writes the latest committed counts
+			unpropagated.remove(tourUuid);
+			return propagateOrDefer(tourUuid, seats).toSingleDefault(seats);
+		}));
+	}
+
+	/**
+	 * Retry the propagations which failed after the seats had been committed.
+	 * 
+	 * @return
+	 */
+	public Completable retryPropagation() {
+		return Observable.fromIterable(new ArrayList<>(unpropagated.keySet())).flatMapCompletable(tourUuid -> {
+			return serializer.serialize(tourUuid, Single.defer(() -> {
+				Map<OffsetDateTime, Integer> seats = unpropagated.remove(tourUuid);
+				if (seats == null) {
+					return Single.just(tourUuid);
+				}
+				log.info("Retrying the propagation of the seats of tour {" + tourUuid + "}");
+				return propagateOrDefer(tourUuid, seats).toSingleDefault(tourUuid);
+			})).ignoreElement();
+		});
+	}
+
+	private Completable propagateOrDefer(String tourUuid, Map<OffsetDateTime, Integer> seats) {
+		return propagate(tourUuid, seats).onErrorComplete(err -> {
+			log.error("Could not write the committed seats of tour {" + tourUuid + "} to all languages. Retrying with the next flush.", err);
+			unpropagated.put(tourUuid, seats);
+			return true;
+		});
+	}
+
+	/**
+	 * Update the seats of the default language.
+	 * 
+	 * @param tourUuid
+	 * @param reserved
+	 * @return Committed seats per tour date
+	 */
+	protected Single<Map<OffsetDateTime, Integer>> commit(String tourUuid, Map<OffsetDateTime, Integer> reserved) {
+		return commit(tourUuid, reserved, 0);
+	}
+
+	/**
+	 * Update the seats of the default language. The update fails with a conflict if the node was changed since it was read.
+	 * 
+	 * @param tourUuid
+	 * @param reserved
+	 * @param attempt
+	 * @return
+	 */
+	private Single<Map<OffsetDateTime, Integer>> commit(String tourUuid, Map<OffsetDateTime, Integer> reserved, int attempt) {
+		return loadNode(tourUuid, DEFAULT_LANGUAGE).flatMap(node -> {
+			Map<OffsetDateTime, Integer> seats = new HashMap<>();
+			reserved.forEach((date, count) -> {
+				MicronodeField item = findDate(node, date);
+				if (item == null) {
+					log.error("Tour {" + tourUuid + "} has no date {" + date + "}. Dropping {" + count + "} reservations.");
+					return;
+				}
+				int current = item.getFields().getNumberField("seats").getNumber().intValue();
+				if (current < count) {
+					log.error("Tour {" + tourUuid + "} on {" + date + "} is overbooked by {" + (count - current) + "} seats");
+				}
+				seats.put(date, Math.max(0, current - count));
+			});
+			if (seats.isEmpty()) {
+				return Single.just(seats);
+			}
+			return update(node, seats).toSingleDefault(seats);
+		}).onErrorResumeNext(err -> {
+			if (isConflict(err) && attempt < MAX_RETRIES) {
+				log.info("Conflict while reserving tour {" + tourUuid + "}. Retrying.");
+				return Single.timer(RETRY_DELAY * (attempt + 1), TimeUnit.MILLISECONDS).flatMap(t -> commit(tourUuid, reserved, attempt + 1));
+			}
+			return Single.error(err);
+		});
+	}
+
+	/**
+	 * Write the committed seat counts to the other languages and publish all languages.
+	 * 
+	 * @param tourUuid
+	 * @param seats
+	 * @return
+	 */
+	protected Completable propagate(String tourUuid, Map<OffsetDateTime, Integer> seats) {
+		if (seats.isEmpty()) {
+			return Completable.complete();
+		}
+		Completable translations = Observable.fromIterable(LANGUAGES)
+			.filter(lang -> !lang.equals(DEFAULT_LANGUAGE))
+			.flatMapCompletable(lang -> setSeats(tourUuid, lang, seats, 0));
+		return translations.andThen(Observable.fromIterable(LANGUAGES).flatMapCompletable(lang -> {
+			return client.publishNode(project, tourUuid, new NodeParametersImpl().setLanguages(lang)).toCompletable();
+		}));
+	}
+
+	/**
+	 * Set the absolute seat counts for the language. Conflicts are retried since the values don't depend on the previous state.
+	 * 
+	 * @param tourUuid
+	 * @param lang
+	 * @param seats
+	 * @param attempt
+	 * @return
+	 */
+	private Completable setSeats(String tourUuid, String lang, Map<OffsetDateTime, Integer> seats, int attempt) {
+		return loadNode(tourUuid, lang).flatMapCompletable(node -> {
+			return update(node, seats);
+		}).onErrorResumeNext(err -> {
+			if (isConflict(err) && attempt < MAX_RETRIES) {
+				return Completable.timer(RETRY_DELAY, TimeUnit.MILLISECONDS)
+					.andThen(Completable.defer(() -> setSeats(tourUuid, lang, seats, attempt + 1)));
+			}
+			return Completable.error(err);
+		});
+	}
+
+	private Single<NodeResponse> loadNode(String tourUuid, String lang) {
+		return client.findNodeByUuid(project, tourUuid, new NodeParametersImpl().setLanguages(lang)).toSingle();
+	}
+
+	/**
+	 * Update the seats of the dates. Only the dates are sent along with the version that was read.
+	 * 
+	 * @param node
+	 * @param seats
+	 * @return
+	 */
+	private Completable update(NodeResponse node, Map<OffsetDateTime, Integer> seats) {
+		MicronodeFieldList dates = node.getFields().getMicronodeFieldList("dates");
+		seats.forEach((date, count) -> {
+			MicronodeField item = findDate(node, date);
+			if (item == null) {
+				log.warn("Tour {" + node.getUuid() + "} has no date {" + date + "} in language {" + node.getLanguage() + "}");
+			} else {
+				item.getFields().put("seats", new NumberFieldImpl().setNumber(count));
+			}
+		});
+		NodeUpdateRequest request = new NodeUpdateRequest();
+		request.setLanguage(node.getLanguage());
+		request.setVersion(node.getVersion());
+		request.getFields().put("dates", dates);
+		return client.updateNode(project, node.getUuid(), request, new NodeParametersImpl().setLanguages(node.getLanguage())).toCompletable();
+	}
+
+	private MicronodeField findDate(NodeResponse node, OffsetDateTime date) {
+		MicronodeFieldList dates = node.getFields().getMicronodeFieldList("dates");
+		if (dates == null) {
+			return null;
+		}
+		for (MicronodeField item : dates.getItems()) {
+			DateFieldImpl dateField = item.getFields().getDateField("date");
+			if (dateField != null && date.isEqual(DateUtils.parse(dateField.getDate()))) {
+				return item;
+			}
+		}
+		return null;
+	}
+
+	private boolean isConflict(Throwable err) {
+		return err instanceof MeshRestClientMessageException && ((MeshRestClientMessageException) err).getStatusCode() == 409;
+	}
+}
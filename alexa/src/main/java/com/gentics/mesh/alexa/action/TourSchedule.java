@@ -0,0 +1,50 @@
+package com.gentics.mesh.alexa.action;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import com.gentics.mesh.alexa.model.Tour;
+import com.gentics.mesh.alexa.model.TourInfo;
+
+/**
+ * Time ordered index of all tour dates. The index is built once per catalogue load and is immutable afterwards.
+ */
+public class TourSchedule {
+
+	private final NavigableMap<Instant, List<TourInfo>> dates;
+
+	public TourSchedule(List<Tour> tours) {
+		NavigableMap<Instant, List<TourInfo>> index = new TreeMap<>();
+		for (Tour tour : tours) {
+			for (TourInfo info : tour.getDates()) {
+				index.computeIfAbsent(info.getDate().toInstant(), k -> new ArrayList<>(1)).add(info);
+			}
+		}
+		this.dates = Collections.unmodifiableNavigableMap(index);
+	}
+
+	/**
+	 * Return the first tour date which starts at or after the given time and which still has free seats.
+	 * 
+	 * @param now
+	 * @param available
+	 *            Additional filter for the tour dates. Can be used to check the seats which have not yet been written to Mesh.
+	 * @return Tour date or null if no upcoming tour date is available
+	 */
+	public TourInfo next(OffsetDateTime now, Predicate<TourInfo> available) {
+		for (List<TourInfo> infos : dates.tailMap(now.toInstant(), true).values()) {
+			for (TourInfo info : infos) {
+				if (info.getSeats() > 0 && available.test(info)) {
+					return info;
+				}
+			}
+		}
+		return null;
+	}
+}
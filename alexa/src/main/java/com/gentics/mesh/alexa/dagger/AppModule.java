@@ -2,10 +2,12 @@ package com.gentics.mesh.alexa.dagger;
 
 import javax.inject.Singleton;
 
+import com.gentics.mesh.alexa.dagger.config.SkillConfig;
+
 import dagger.Module;
 import dagger.Provides;
 import io.vertx.core.Vertx;
-import io.vertx.core.VertxOptions;
+import io.vertx.core.WorkerExecutor;
 import io.vertx.core.file.FileSystem;
 import io.vertx.core.http.HttpClient;
 
@@ -15,9 +17,20 @@ public class AppModule {
 	@Provides
 	@Singleton
 	public Vertx vertx() {
-		VertxOptions options = new VertxOptions();
-		options.setBlockedThreadCheckInterval(1000 * 60 * 60);
-		return Vertx.vertx(options);
+		return Vertx.vertx();
+	}
+
+	/**
+	 * Bounded pool which executes the skill requests. The intents wait for Mesh and must thus not run on the event loop.
+	 * 
+	 * @param vertx
+	 * @param config
+	 * @return
+	 */
+	@Provides
+	@Singleton
+	public WorkerExecutor skillExecutor(Vertx vertx, SkillConfig config) {
+		return vertx.createSharedWorkerExecutor("skill-worker", config.getWorkerPoolSize());
 	}
 
 	@Provides
@@ -15,6 +15,34 @@ public class SkillConfig {
 
 	private boolean meshSsl = true;
 
+	private long tourCacheTtl = 10 * 60 * 1000;
+
+	private int workerPoolSize = 20;
+
+	private int serverInstances = Runtime.getRuntime().availableProcessors();
+
+	private long reservationFlushInterval = 2000;
+
+	private String reservationLogPath = "reservations.log";
+
+	private int meshPoolSize = 16;
+
+	private long meshKeepAlive = 5 * 60 * 1000;
+
+	private int meshMaxRequestsPerHost = 64;
+
+	private boolean meshHttp2 = true;
+
+	private long meshConnectTimeout = 2000;
+
+	private long meshReadTimeout = 6000;
+
+	private long meshWriteTimeout = 6000;
+
+	private int meshTlsSessionCacheSize = 100;
+
+	private int meshTlsSessionTimeout = 24 * 60 * 60;
+
 	public String getMeshApiKey() {
 		return meshApiKey;
 	}
@@ -58,4 +86,192 @@ public class SkillConfig {
 	public void setServerPort(int serverPort) {
 		this.serverPort = serverPort;
 	}
+
+	/**
+	 * Time in milliseconds after which the cached tours will be reloaded from Mesh. Changes to tours are usually picked up earlier via the Mesh eventbus.
+	 * 
+	 * @return
+	 */
+	public long getTourCacheTtl() {
+		return tourCacheTtl;
+	}
+
+	public SkillConfig setTourCacheTtl(long tourCacheTtl) {
+		this.tourCacheTtl = tourCacheTtl;
+		return this;
+	}
+
+	/**
+	 * Amount of skill requests which can be processed concurrently.
+	 * 
+	 * @return
+	 */
+	public int getWorkerPoolSize() {
+		return workerPoolSize;
+	}
+
+	public SkillConfig setWorkerPoolSize(int workerPoolSize) {
+		this.workerPoolSize = workerPoolSize;
+		return this;
+	}
+
+	/**
+	 * Amount of skill server verticles to deploy. Each instance runs on its own event loop. Defaults to the amount of available cores.
+	 * 
+	 * @return
+	 */
+	public int getServerInstances() {
+		return serverInstances;
+	}
+
+	public SkillConfig setServerInstances(int serverInstances) {
+		this.serverInstances = serverInstances;
+		return this;
+	}
+
+	/**
+	 * Interval in milliseconds in which the acknowledged reservations are written to Mesh.
+	 * 
+	 * @return
+	 */
+	public long getReservationFlushInterval() {
+		return reservationFlushInterval;
+	}
+
+	public SkillConfig setReservationFlushInterval(long reservationFlushInterval) {
+		this.reservationFlushInterval = reservationFlushInterval;
+		return this;
+	}
+
+	/**
+	 * Path to the log which keeps the reservations until they have been written to Mesh.
+	 * 
+	 * @return
+	 */
+	public String getReservationLogPath() {
+		return reservationLogPath;
+	}
+
+	public SkillConfig setReservationLogPath(String reservationLogPath) {
+		this.reservationLogPath = reservationLogPath;
+		return this;
+	}
+
+	/**
+	 * Maximum amount of idle connections to Mesh which are kept open for reuse.
+	 * 
+	 * @return
+	 */
+	public int getMeshPoolSize() {
+		return meshPoolSize;
+	}
+
+	public void setMeshPoolSize(int meshPoolSize) {
+		this.meshPoolSize = meshPoolSize;
+	}
+
+	/**
+	 * Time in milliseconds after which idle connections to Mesh are closed.
+	 * 
+	 * @return
+	 */
+	public long getMeshKeepAlive() {
+		return meshKeepAlive;
+	}
+
+	public void setMeshKeepAlive(long meshKeepAlive) {
+		this.meshKeepAlive = meshKeepAlive;
+	}
+
+	/**
+	 * Maximum amount of concurrent requests to Mesh. Further requests are queued by the client.
+	 * 
+	 * @return
+	 */
+	public int getMeshMaxRequestsPerHost() {
+		return meshMaxRequestsPerHost;
+	}
+
+	public void setMeshMaxRequestsPerHost(int meshMaxRequestsPerHost) {
+		this.meshMaxRequestsPerHost = meshMaxRequestsPerHost;
+	}
+
+	/**
+	 * Flag which indicates whether HTTP/2 should be negotiated with Mesh. Concurrent requests are then multiplexed over a single connection. Only applies
+	 * to SSL connections.
+	 * 
+	 * @return
+	 */
+	public boolean isMeshHttp2() {
+		return meshHttp2;
+	}
+
+	public void setMeshHttp2(boolean meshHttp2) {
+		this.meshHttp2 = meshHttp2;
+	}
+
+	/**
+	 * Timeout in milliseconds for establishing a connection to Mesh.
+	 * 
+	 * @return
+	 */
+	public long getMeshConnectTimeout() {
+		return meshConnectTimeout;
+	}
+
+	public void setMeshConnectTimeout(long meshConnectTimeout) {
+		this.meshConnectTimeout = meshConnectTimeout;
+	}
+
+	/**
+	 * Timeout in milliseconds for reading from a connection to Mesh. Should stay below the response deadline of the Alexa service.
+	 * 
+	 * @return
+	 */
+	public long getMeshReadTimeout() {
+		return meshReadTimeout;
+	}
+
+	public void setMeshReadTimeout(long meshReadTimeout) {
+		this.meshReadTimeout = meshReadTimeout;
+	}
+
+	/**
+	 * Timeout in milliseconds for writing to a connection to Mesh.
+	 * 
+	 * @return
+	 */
+	public long getMeshWriteTimeout() {
+		return meshWriteTimeout;
+	}
+
+	public void setMeshWriteTimeout(long meshWriteTimeout) {
+		this.meshWriteTimeout = meshWriteTimeout;
+	}
+
+	/**
+	 * Amount of TLS sessions which are cached for resumption. Resumed sessions skip the full handshake when a new connection is opened.
+	 * 
+	 * @return
+	 */
+	public int getMeshTlsSessionCacheSize() {
+		return meshTlsSessionCacheSize;
+	}
+
+	public void setMeshTlsSessionCacheSize(int meshTlsSessionCacheSize) {
+		this.meshTlsSessionCacheSize = meshTlsSessionCacheSize;
+	}
+
+	/**
+	 * Time in seconds for which cached TLS sessions can be resumed.
+	 * 
+	 * @return
+	 */
+	public int getMeshTlsSessionTimeout() {
+		return meshTlsSessionTimeout;
+	}
+
+	public void setMeshTlsSessionTimeout(int meshTlsSessionTimeout) {
+		this.meshTlsSessionTimeout = meshTlsSessionTimeout;
+	}
 }
@@ -22,7 +22,6 @@ import com.gentics.mesh.alexa.intent.impl.ReserveTourIntent;
 import com.gentics.mesh.alexa.intent.impl.SessionEndedRequestHandler;
 import com.gentics.mesh.alexa.intent.impl.TourInfoIntentHandler;
 
-import io.vertx.core.Handler;
 import io.vertx.core.json.JsonObject;
 
 @Singleton
@@ -60,16 +59,19 @@ public class SkillIntentHandler {
 			.build();
 	}
 
-	public void handleRequest(JsonObject input, Handler<SkillResponse<?>> responseHandler) throws IOException {
+	/**
+	 * Execute the skill for the request. The intents block until Mesh answered and thus this method must not be invoked on the event loop.
+	 * 
+	 * @param input
+	 * @return Response of the skill
+	 * @throws IOException
+	 */
+	public SkillResponse<?> handleRequest(JsonObject input) throws IOException {
 		SkillResponse<?> response = skill.execute(new BaseSkillRequest(input.toBuffer().getBytes()), null);
-		if (response != null) {
-			if (response.isPresent()) {
-				responseHandler.handle(response);
-			}
-			return;
-		} else {
+		if (response == null) {
 			throw new AskSdkException("Could not find a skill to handle the incoming request");
 		}
+		return response;
 	}
 
 }
@@ -0,0 +1,62 @@
+package com.gentics.mesh.alexa.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tour in a single language along with all its dates.
+ */
+public class Tour {
+
+	private final String uuid;
+	private final String title;
+	private final String location;
+	private final String description;
+	private final double price;
+	private final int size;
+	private final List<TourInfo> dates;
+
+	public Tour(String uuid, String title, String location, String description, double price, int size, List<TourInfo> dates) {
+		this.uuid = uuid;
+		this.title = title;
+		this.location = location;
+		this.description = description;
+		this.price = price;
+		this.size = size;
+		this.dates = Collections.unmodifiableList(dates);
+	}
+
+	public String getUuid() {
+		return uuid;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public String getLocation() {
+		return location;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public double getPrice() {
+		return price;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Return the dates of the tour. Each date is represented by a {@link TourInfo}.
+	 * 
+	 * @return
+	 */
+	public List<TourInfo> getDates() {
+		return dates;
+	}
+
+}
@@ -1,19 +1,18 @@
 package com.gentics.mesh.alexa.server;
 
-import java.io.IOException;
-
 import javax.inject.Inject;
-import javax.inject.Singleton;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.amazon.ask.response.SkillResponse;
 import com.gentics.mesh.alexa.MuseTechSkill;
 import com.gentics.mesh.alexa.dagger.config.SkillConfig;
 import com.gentics.mesh.alexa.intent.SkillIntentHandler;
 
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
+import io.vertx.core.WorkerExecutor;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.json.JsonObject;
@@ -21,7 +20,10 @@ import io.vertx.ext.web.Router;
 import io.vertx.ext.web.handler.BodyHandler;
 import io.vertx.ext.web.handler.LoggerHandler;
 
-@Singleton
+/**
+ * HTTP server for the skill requests. Multiple instances of the verticle may be deployed. All instances share the singletons of the dagger graph
+ * which thus need to be thread-safe.
+ */
 public class SkillServerVerticle extends AbstractVerticle {
 
 	public static final Logger log = LoggerFactory.getLogger(MuseTechSkill.class);
@@ -31,10 +33,13 @@ public class SkillServerVerticle extends AbstractVerticle {
 
 	private SkillConfig config;
 
+	private WorkerExecutor skillExecutor;
+
 	@Inject
-	public SkillServerVerticle(SkillConfig config, SkillIntentHandler intentHandler) {
+	public SkillServerVerticle(SkillConfig config, SkillIntentHandler intentHandler, WorkerExecutor skillExecutor) {
 		this.config = config;
 		this.intentHandler = intentHandler;
+		this.skillExecutor = skillExecutor;
 	}
 
 	@Override
@@ -77,14 +82,25 @@ public class SkillServerVerticle extends AbstractVerticle {
 
 		router.route("/alexa").handler(rh -> {
 			JsonObject json = rh.getBodyAsJson();
-			try {
-				intentHandler.handleRequest(json, sr -> {
-					Buffer buffer = Buffer.buffer(sr.getRawResponse());
-					rh.response().end(buffer);
-				});
-			} catch (IOException e) {
-				rh.fail(e);
-			}
+			// Execute the skill on the worker pool so that slow Mesh requests don't block the event loop. The requests don't need to be ordered.
+			skillExecutor.<SkillResponse<?>>executeBlocking(bh -> {
+				try {
+					bh.complete(intentHandler.handleRequest(json));
+				} catch (Exception e) {
+					bh.fail(e);
+				}
+			}, false, rh2 -> {
+				if (rh2.failed()) {
+					rh.fail(rh2.cause());
+					return;
+				}
+				SkillResponse<?> response = rh2.result();
+				if (response.isPresent()) {
+					rh.response().end(Buffer.buffer(response.getRawResponse()));
+				} else {
+					rh.response().end();
+				}
+			});
 		});
 
 	}
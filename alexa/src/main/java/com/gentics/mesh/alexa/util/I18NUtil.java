@@ -1,12 +1,22 @@
 package com.gentics.mesh.alexa.util;
 
 import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Translations of the skill. The bundles of all supported languages are loaded once and their messages are precompiled. Formatting a message thus
+ * neither loads bundles nor parses patterns.
+ */
 public class I18NUtil {
 
 	public static final Logger log = LoggerFactory.getLogger(I18NUtil.class);
@@ -15,6 +25,32 @@ public class I18NUtil {
 
 	public static final Locale DEFAULT_LOCALE = new Locale("de", "DE");
 
+	/**
+	 * Languages for which a translation bundle exists.
+	 */
+	public static final List<String> LANGUAGES = Arrays.asList("en", "de");
+
+	private static final Map<String, Map<String, Message>> MESSAGES;
+
+	/**
+	 * Messages per requested locale. Memoizes the fallback resolution for locales without translations.
+	 */
+	private static final Map<Locale, Map<String, Message>> RESOLVED = new ConcurrentHashMap<>();
+
+	static {
+		Map<String, Map<String, Message>> messages = new HashMap<>();
+		for (String lang : LANGUAGES) {
+			Locale locale = new Locale(lang);
+			ResourceBundle bundle = ResourceBundle.getBundle("i18n." + BUNDLENAME, locale);
+			Map<String, Message> bundleMessages = new HashMap<>();
+			for (String key : bundle.keySet()) {
+				bundleMessages.put(key, new Message(locale, bundle.getString(key)));
+			}
+			messages.put(lang, Collections.unmodifiableMap(bundleMessages));
+		}
+		MESSAGES = Collections.unmodifiableMap(messages);
+	}
+
 	/**
 	 * Return the i18n string for the given bundle, local and i18n key.
 	 * 
@@ -26,21 +62,52 @@ public class I18NUtil {
 	 */
 	public static String i18n(Locale locale, String key, String... parameters) {
 		if (locale == null) {
-			log.debug("Locale not specified. Using default locale {" + DEFAULT_LOCALE + "}");
 			locale = DEFAULT_LOCALE;
 		}
-		log.info("Using locale: " + locale.getLanguage() + "_" + locale.getCountry());
-		String i18nMessage = "";
+		Message message = RESOLVED.computeIfAbsent(locale, I18NUtil::resolve).get(key);
+		if (message == null) {
+			log.error("Could not find i18n message for key {" + key + "} and locale {" + locale + "}");
+			return key;
+		}
 		try {
-			ResourceBundle labels = ResourceBundle.getBundle("i18n." + BUNDLENAME, locale);
-			MessageFormat formatter = new MessageFormat("");
-			formatter.setLocale(locale);
-			formatter.applyPattern(labels.getString(key));
-			i18nMessage = formatter.format(parameters);
+			return message.format(parameters);
 		} catch (Exception e) {
 			log.error("Could not format i18n message for key {" + key + "}", e);
-			i18nMessage = key;
+			return key;
+		}
+	}
+
+	private static Map<String, Message> resolve(Locale locale) {
+		Map<String, Message> messages = MESSAGES.get(locale.getLanguage());
+		if (messages == null) {
+			log.debug("No translations for locale {" + locale + "}. Using default locale {" + DEFAULT_LOCALE + "}");
+			messages = MESSAGES.get(DEFAULT_LOCALE.getLanguage());
+		}
+		return messages;
+	}
+
+	/**
+	 * Precompiled message. Messages without parameters are formatted upfront.
+	 */
+	private static class Message {
+
+		private final MessageFormat format;
+
+		private final String text;
+
+		private Message(Locale locale, String pattern) {
+			this.format = new MessageFormat(pattern, locale);
+			this.text = format.getFormats().length == 0 ? format.format(new Object[0]) : null;
+		}
+
+		private String format(Object[] parameters) {
+			if (text != null) {
+				return text;
+			}
+			// MessageFormat is not thread-safe
+			synchronized (format) {
+				return format.format(parameters);
+			}
 		}
-		return i18nMessage;
 	}
 }
@@ -0,0 +1,29 @@
+package com.gentics.mesh.alexa;
+
+import static com.gentics.mesh.alexa.util.I18NUtil.i18n;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Locale;
+
+import org.junit.Test;
+
+public class I18NUtilTest {
+
+	@Test
+	public void testFormat() {
+		assertEquals("Blackspring Museum of History", i18n(Locale.ENGLISH, "museum_name"));
+		assertEquals("Tesla for 4 persons", i18n(Locale.US, "tour_info", "Tesla", "4"));
+		assertEquals("There are 3 seats free.", i18n(Locale.ENGLISH, "tour_next_info_seats", "3"));
+	}
+
+	@Test
+	public void testFallback() {
+		assertEquals(i18n(Locale.GERMAN, "museum_name"), i18n(Locale.FRENCH, "museum_name"));
+		assertEquals(i18n(Locale.GERMAN, "museum_name"), i18n(null, "museum_name"));
+	}
+
+	@Test
+	public void testMissingKey() {
+		assertEquals("bogus", i18n(Locale.ENGLISH, "bogus"));
+	}
+}
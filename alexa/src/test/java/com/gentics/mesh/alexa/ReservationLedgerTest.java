@@ -0,0 +1,138 @@
+package com.gentics.mesh.alexa;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.gentics.mesh.alexa.action.ReservationLedger;
+import com.gentics.mesh.alexa.action.ReservationLedger.Result;
+import com.gentics.mesh.alexa.action.TourReservations;
+import com.gentics.mesh.alexa.model.TourInfo;
+import com.gentics.mesh.alexa.util.DateUtils;
+
+import io.reactivex.Completable;
+import io.reactivex.Single;
+
+public class ReservationLedgerTest {
+
+	private static final String DATE = "2030-05-01T10:00:00Z";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final List<Map<OffsetDateTime, Integer>> writes = new ArrayList<>();
+
+	private boolean failing;
+
+	private final TourReservations reservations = new TourReservations(null, "musetech") {
+		@Override
+		public Single<Map<OffsetDateTime, Integer>> reserve(String tourUuid, Map<OffsetDateTime, Integer> reserved) {
+			if (failing) {
+				return Single.error(new RuntimeException("Mesh is down"));
+			}
+			writes.add(reserved);
+			Map<OffsetDateTime, Integer> seats = new HashMap<>();
+			reserved.forEach((date, count) -> seats.put(date, 3 - count));
+			return Single.just(seats);
+		}
+	};
+
+	private TourInfo tour(int seats) {
+		return new TourInfo("tour", "Title", "Location", DateUtils.parse(DATE), 10, seats, 12, DATE);
+	}
+
+	@Test
+	public void testReserveAndFlush() throws IOException {
+		File log = folder.newFile();
+		ReservationLedger ledger = new ReservationLedger(reservations, log);
+		assertEquals(Result.RESERVED, ledger.reserve(tour(3)));
+		assertEquals(Result.RESERVED, ledger.reserve(tour(3)));
+		assertEquals(1, ledger.getAvailable(tour(3)));
+
+		// Both reservations are written with a single update
+		assertEquals(1, ledger.flush().blockingGet().intValue());
+		assertEquals(1, writes.size());
+		assertEquals(2, writes.get(0).get(DateUtils.parse(DATE)).intValue());
+		assertEquals(0, log.length());
+
+		assertEquals(Result.RESERVED, ledger.reserve(tour(3)));
+		assertEquals(Result.SOLD_OUT, ledger.reserve(tour(3)));
+	}
+
+	@Test
+	public void testRetryFailedFlush() throws IOException {
+		ReservationLedger ledger = new ReservationLedger(reservations, folder.newFile());
+		ledger.reserve(tour(3));
+		failing = true;
+		assertEquals(0, ledger.flush().blockingGet().intValue());
+		failing = false;
+		assertEquals(1, ledger.flush().blockingGet().intValue());
+		assertEquals(1, writes.get(0).get(DateUtils.parse(DATE)).intValue());
+	}
+
+	@Test
+	public void testReplay() throws IOException {
+		File log = folder.newFile();
+		ReservationLedger ledger = new ReservationLedger(reservations, log);
+		ledger.reserve(tour(3));
+		ledger.reserve(tour(3));
+
+		// Reservations which have not been flushed are recovered from the log
+		ReservationLedger recovered = new ReservationLedger(reservations, log);
+		assertEquals(1, recovered.getAvailable(tour(3)));
+		assertEquals(1, recovered.flush().blockingGet().intValue());
+		assertEquals(2, writes.get(0).get(DateUtils.parse(DATE)).intValue());
+	}
+
+	@Test
+	public void testFailedPropagationIsNotFlushedAgain() throws IOException {
+		List<Map<OffsetDateTime, Integer>> commits = new ArrayList<>();
+		List<Map<OffsetDateTime, Integer>> propagations = new ArrayList<>();
+		TourReservations partial = new TourReservations(null, "musetech") {
+			@Override
+			protected Single<Map<OffsetDateTime, Integer>> commit(String tourUuid, Map<OffsetDateTime, Integer> reserved) {
+				commits.add(reserved);
+				Map<OffsetDateTime, Integer> seats = new HashMap<>();
+				reserved.forEach((date, count) -> seats.put(date, 3 - count));
+				return Single.just(seats);
+			}
+
+			@Override
+			protected Completable propagate(String tourUuid, Map<OffsetDateTime, Integer> seats) {
+				propagations.add(seats);
+				return failing ? Completable.error(new RuntimeException("Publish failed")) : Completable.complete();
+			}
+		};
+		File log = folder.newFile();
+		ReservationLedger ledger = new ReservationLedger(partial, log);
+		ledger.reserve(tour(3));
+
+		// The seats are committed even though the translation or the publish failed
+		failing = true;
+		assertEquals(1, ledger.flush().blockingGet().intValue());
+		assertEquals(1, commits.size());
+		assertEquals(1, propagations.size());
+		assertEquals(0, log.length());
+
+		// The next flush only retries the propagation of the committed seats
+		failing = false;
+		assertEquals(0, ledger.flush().blockingGet().intValue());
+		assertEquals(1, commits.size());
+		assertEquals(2, propagations.size());
+		assertEquals(2, propagations.get(1).get(DateUtils.parse(DATE)).intValue());
+		assertEquals(2, ledger.getAvailable(tour(3)));
+
+		ledger.flush().blockingGet();
+		assertEquals(2, propagations.size());
+	}
+}
@@ -6,6 +6,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.amazon.ask.response.SkillResponse;
 import com.gentics.mesh.alexa.intent.SkillIntentHandler;
 import com.gentics.mesh.alexa.intent.impl.DebugIntent;
 import com.gentics.mesh.alexa.intent.impl.GetNextTourIntent;
@@ -32,10 +33,9 @@ public class SkillIntentHandlerTest extends AbstractSkillTest {
 		DebugIntent debugIntent = Mockito.mock(DebugIntent.class);
 
 		SkillIntentHandler handler = new SkillIntentHandler(priceIntent, stockLevelIntent, reserveIntent, toursInfo, nextTourInfo, debugIntent);
-		handler.handleRequest(input, h -> {
-			Buffer buffer = Buffer.buffer(h.getRawResponse());
-			JsonObject output = new JsonObject(buffer);
-			System.out.println(output);
-		});
+		SkillResponse<?> response = handler.handleRequest(input);
+		Buffer buffer = Buffer.buffer(response.getRawResponse());
+		JsonObject output = new JsonObject(buffer);
+		System.out.println(output);
 	}
 }
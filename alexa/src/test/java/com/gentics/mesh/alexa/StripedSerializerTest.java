@@ -0,0 +1,65 @@
+package com.gentics.mesh.alexa;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.gentics.mesh.alexa.action.StripedSerializer;
+
+import io.reactivex.Single;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.subjects.SingleSubject;
+
+public class StripedSerializerTest {
+
+	private final StripedSerializer serializer = new StripedSerializer(4);
+
+	@Test
+	public void testSameKeyWaitsForPredecessor() {
+		SingleSubject<String> first = SingleSubject.create();
+		AtomicInteger started = new AtomicInteger();
+		serializer.serialize("tour", first).subscribe();
+		serializer.serialize("tour", Single.fromCallable(started::incrementAndGet)).subscribe();
+		assertEquals(0, started.get());
+		first.onSuccess("done");
+		assertEquals(1, started.get());
+	}
+
+	@Test
+	public void testFailureReleasesStripe() {
+		SingleSubject<String> first = SingleSubject.create();
+		AtomicInteger started = new AtomicInteger();
+		serializer.serialize("tour", first).subscribe(v -> {
+		}, err -> {
+		});
+		serializer.serialize("tour", Single.fromCallable(started::incrementAndGet)).subscribe();
+		first.onError(new RuntimeException("conflict"));
+		assertEquals(1, started.get());
+	}
+
+	@Test
+	public void testDisposedOperationKeepsOrder() {
+		SingleSubject<String> first = SingleSubject.create();
+		AtomicInteger started = new AtomicInteger();
+		serializer.serialize("tour", first).subscribe();
+		Disposable second = serializer.serialize("tour", Single.fromCallable(started::incrementAndGet)).subscribe();
+		serializer.serialize("tour", Single.fromCallable(started::incrementAndGet)).subscribe();
+		second.dispose();
+		assertEquals(0, started.get());
+		first.onSuccess("done");
+		assertEquals(1, started.get());
+	}
+
+	@Test
+	public void testOtherStripesRunConcurrently() {
+		StripedSerializer serializer = new StripedSerializer(2);
+		SingleSubject<String> first = SingleSubject.create();
+		AtomicInteger started = new AtomicInteger();
+		// "a" and "b" have consecutive hash codes and thus use different stripes
+		serializer.serialize("a", first).subscribe();
+		serializer.serialize("b", Single.fromCallable(started::incrementAndGet)).subscribe();
+		assertEquals(1, started.get());
+	}
+}
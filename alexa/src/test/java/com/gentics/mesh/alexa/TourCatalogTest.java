@@ -0,0 +1,65 @@
+package com.gentics.mesh.alexa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.gentics.mesh.alexa.action.TourCatalog;
+import com.gentics.mesh.alexa.model.Tour;
+
+import io.reactivex.Single;
+
+public class TourCatalogTest {
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private Single<List<Tour>> load(String lang) {
+		return Single.fromCallable(() -> {
+			loads.incrementAndGet();
+			return Arrays.asList(new Tour("uuid-" + lang, "Title " + lang, "Location", null, 10.5, 12, new ArrayList<>()));
+		});
+	}
+
+	@Test
+	public void testCachePerLanguage() {
+		TourCatalog catalog = new TourCatalog(this::load, 60_000);
+		assertEquals("Title de", catalog.tours(Locale.GERMAN).blockingGet().get(0).getTitle());
+		assertEquals("Title de", catalog.tours(Locale.GERMAN).blockingGet().get(0).getTitle());
+		assertEquals("Title en", catalog.tours(Locale.ENGLISH).blockingGet().get(0).getTitle());
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testRefresh() {
+		TourCatalog catalog = new TourCatalog(this::load, 60_000);
+		catalog.tours(Locale.GERMAN).blockingGet();
+		catalog.refresh("de");
+		// Languages which have not been requested yet are not loaded
+		catalog.refresh("fr");
+		assertEquals(2, loads.get());
+		catalog.tours(Locale.GERMAN).blockingGet();
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testTtl() {
+		TourCatalog catalog = new TourCatalog(this::load, -1);
+		catalog.tours(Locale.GERMAN).blockingGet();
+		catalog.tours(Locale.GERMAN).blockingGet();
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testFindByUuid() {
+		TourCatalog catalog = new TourCatalog(this::load, 60_000);
+		assertEquals("Title de", catalog.findByUuid(Locale.GERMAN, "uuid-de").blockingGet().getTitle());
+		assertNull(catalog.findByUuid(Locale.GERMAN, "bogus").blockingGet());
+	}
+}
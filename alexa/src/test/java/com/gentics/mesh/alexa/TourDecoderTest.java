@@ -0,0 +1,48 @@
+package com.gentics.mesh.alexa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.gentics.mesh.alexa.action.TourDecoder;
+import com.gentics.mesh.alexa.model.Tour;
+import com.gentics.mesh.alexa.model.TourInfo;
+
+public class TourDecoderTest {
+
+	private static final String TOUR = "{\"uuid\":\"tour1\",\"fields\":{\"title\":\"Space\",\"location\":\"Hall 1\",\"price\":12.5,\"size\":10,"
+		+ "\"description\":null,\"dates\":[{\"fields\":{\"date\":\"2030-05-01T10:00:00Z\",\"seats\":4}},null,"
+		+ "{\"fields\":{\"date\":\"2030-05-02T10:00:00Z\",\"seats\":0}}]}}";
+
+	@Test
+	public void testDecodeTours() throws IOException {
+		String json = "{\"data\":{\"schema\":{\"nodes\":{\"elements\":[" + TOUR + ",{\"uuid\":\"tour2\",\"fields\":{\"title\":\"Empty\",\"dates\":null}}]}}}}";
+		List<Tour> tours = TourDecoder.decodeTours(json);
+		assertEquals(2, tours.size());
+		Tour tour = tours.get(0);
+		assertEquals("Space", tour.getTitle());
+		assertEquals(12.5, tour.getPrice(), 0);
+		assertEquals(2, tour.getDates().size());
+		TourInfo info = tour.getDates().get(0);
+		assertEquals("tour1", info.getUuid());
+		assertEquals("Hall 1", info.getLocation());
+		assertEquals(4, info.getSeats());
+		assertEquals("2030-05-01T10:00:00Z", info.getDateStr());
+		assertEquals(0, tours.get(1).getDates().size());
+	}
+
+	@Test
+	public void testDecodeTour() throws IOException {
+		assertEquals("tour1", TourDecoder.decodeTour("{\"data\":{\"node\":" + TOUR + "}}").getUuid());
+		assertNull(TourDecoder.decodeTour("{\"data\":{\"node\":null}}"));
+	}
+
+	@Test(expected = IOException.class)
+	public void testErrors() throws IOException {
+		TourDecoder.decodeTours("{\"errors\":[{\"message\":\"Broken query\",\"type\":\"InvalidSyntax\"}]}");
+	}
+}
@@ -0,0 +1,75 @@
+package com.gentics.mesh.alexa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.gentics.mesh.alexa.action.TourNameIndex;
+import com.gentics.mesh.alexa.model.Tour;
+
+public class TourNameIndexTest {
+
+	private static Tour tour(String uuid, String title) {
+		return new Tour(uuid, title, "Location", null, 10, 12, new ArrayList<>());
+	}
+
+	private final TourNameIndex index = new TourNameIndex(Arrays.asList(
+		tour("space", "Space Exploration"),
+		tour("empire", "The Roman Empire"),
+		tour("cars", "Automobile Pioneers"),
+		tour("brewery", "Br\u00e4uhaus Geschichte")));
+
+	@Test
+	public void testExactToken() {
+		assertEquals("space", index.find("space").getUuid());
+		assertEquals("empire", index.find("Empire").getUuid());
+	}
+
+	@Test
+	public void testNormalization() {
+		assertEquals("brewery", index.find("brauhaus").getUuid());
+		assertEquals("space", index.find("space-exploration!").getUuid());
+	}
+
+	@Test
+	public void testMisrecognized() {
+		// Edit distance
+		assertEquals("space", index.find("spaze exploration").getUuid());
+		// Split differently by the speech recognition
+		assertEquals("cars", index.find("auto mobile").getUuid());
+		// Phonetic
+		assertEquals("empire", index.find("roemen").getUuid());
+	}
+
+	@Test
+	public void testNoMatch() {
+		assertNull(index.find("dinosaurs"));
+		assertNull(index.find(""));
+		assertNull(index.find(null));
+	}
+
+	@Test
+	public void testStopwords() {
+		assertNull(index.find("the"));
+		assertNull(index.find("die"));
+		assertNull(index.find("das"));
+		assertEquals("empire", index.find("the roman empire").getUuid());
+		assertEquals("brewery", index.find("das brauhaus").getUuid());
+	}
+
+	@Test
+	public void testTies() {
+		TourNameIndex ties = new TourNameIndex(Arrays.asList(
+			tour("highlights", "Roman Empire Highlights"),
+			tour("empire", "Roman Empire"),
+			tour("copy", "Roman Empire")), "en");
+		// The title which is most similar to the whole query wins
+		assertEquals("empire", ties.find("empire").getUuid());
+		// The first tour wins when the titles are equal
+		assertEquals("empire", ties.find("roman empire").getUuid());
+	}
+}
@@ -0,0 +1,39 @@
+package com.gentics.mesh.alexa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.gentics.mesh.alexa.action.TourSchedule;
+import com.gentics.mesh.alexa.model.Tour;
+import com.gentics.mesh.alexa.model.TourInfo;
+
+public class TourScheduleTest {
+
+	private static TourInfo date(String uuid, String dateStr, int seats) {
+		return new TourInfo(uuid, "Title " + uuid, "Location", OffsetDateTime.parse(dateStr), 10, seats, 12, dateStr);
+	}
+
+	private final TourSchedule schedule = new TourSchedule(Arrays.asList(
+		new Tour("a", "Title a", "Location", null, 10, 12, Arrays.asList(
+			date("a", "2030-05-01T10:00:00Z", 0),
+			date("a", "2030-05-03T10:00:00Z", 5))),
+		new Tour("b", "Title b", "Location", null, 10, 12, Arrays.asList(
+			date("b", "2030-05-02T10:00:00Z", 2),
+			date("b", "2030-04-30T10:00:00Z", 2)))));
+
+	@Test
+	public void testNext() {
+		// Sold out dates are skipped
+		assertEquals("2030-05-02T10:00:00Z", schedule.next(OffsetDateTime.parse("2030-04-30T11:00:00Z"), info -> true).getDateStr());
+		// Dates which start right now are included
+		assertEquals("2030-04-30T10:00:00Z", schedule.next(OffsetDateTime.parse("2030-04-30T10:00:00Z"), info -> true).getDateStr());
+		assertEquals("2030-05-03T10:00:00Z", schedule.next(OffsetDateTime.parse("2030-04-30T11:00:00Z"), info -> !info.getUuid().equals("b"))
+			.getDateStr());
+		assertNull(schedule.next(OffsetDateTime.parse("2030-05-04T10:00:00Z"), info -> true));
+	}
+}
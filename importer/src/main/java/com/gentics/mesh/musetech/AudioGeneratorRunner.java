@@ -2,28 +2,72 @@ package com.gentics.mesh.musetech;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
 
 import com.gentics.mesh.musetech.model.exhibit.Exhibit;
+import com.gentics.mesh.musetech.model.exhibit.ExhibitContent;
 import com.gentics.mesh.musetech.model.exhibit.ExhibitList;
+import com.gentics.mesh.musetech.text2speech.AudioCache;
 import com.gentics.mesh.musetech.text2speech.AudioGenerator;
+import com.gentics.mesh.musetech.text2speech.AudioGeneratorConfig;
+import com.gentics.mesh.musetech.text2speech.SpeechTask;
+import com.gentics.mesh.musetech.text2speech.Voice;
 
+/**
+ * Generates the audio files for the descriptions of all exhibits in all languages. Only audio files whose description or voice changed will be
+ * regenerated.
+ */
 public class AudioGeneratorRunner {
 
-	private static final String TOKEN = "TOKEN";
-
 	public static void main(String[] args) throws IOException {
-		AudioGenerator gen = new AudioGenerator(TOKEN);
+		AudioGeneratorConfig config = new AudioGeneratorConfig();
+		applyEnvs(config);
+		File audioDir = new File("data/audio");
+		AudioCache cache = new AudioCache(audioDir);
+		AudioGenerator gen = new AudioGenerator(config, cache);
 		ExhibitList list = ExhibitList.load();
+		List<SpeechTask> tasks = new ArrayList<>();
 		for (Exhibit ex : list.getExhibits()) {
-			File gbFile = new File("data/audio/" + ex.getPublicNumber() + "_gb.wav");
-			if (!gbFile.exists()) {
-				gen.text2speech(ex.getEnglish().getDescription(), "gb", gbFile);
+			for (Entry<String, ExhibitContent> entry : ex.getContents().entrySet()) {
+				String description = entry.getValue().getDescription();
+				if (description == null) {
+					continue;
+				}
+				String audioLang = entry.getKey().equals("en") ? "gb" : entry.getKey();
+				File output = new File(audioDir, ex.getPublicNumber() + "_" + audioLang + ".wav");
+				tasks.add(new SpeechTask(description, Voice.forLanguage(audioLang), output));
 			}
+		}
+		try {
+			gen.generate(tasks).blockingAwait();
+		} finally {
+			gen.close();
+			cache.save();
+		}
+	}
 
-			File deFile = new File("data/audio/" + ex.getPublicNumber() + "_de.wav");
-			if (!deFile.exists()) {
-				gen.text2speech(ex.getGerman().getDescription(), "de", deFile);
-			}
+	private static void applyEnvs(AudioGeneratorConfig config) {
+		String tokenStr = System.getenv("MUSETECH_TTS_TOKEN");
+		if (tokenStr != null) {
+			config.setToken(tokenStr);
+		}
+		String endpointStr = System.getenv("MUSETECH_TTS_ENDPOINT");
+		if (endpointStr != null) {
+			config.setEndpoint(endpointStr);
+		}
+		String concurrencyStr = System.getenv("MUSETECH_TTS_CONCURRENCY");
+		if (concurrencyStr != null) {
+			config.setConcurrency(Integer.valueOf(concurrencyStr));
+		}
+		String rateStr = System.getenv("MUSETECH_TTS_RATE");
+		if (rateStr != null) {
+			config.setRequestsPerSecond(Double.valueOf(rateStr));
+		}
+		String maxRetriesStr = System.getenv("MUSETECH_TTS_MAX_RETRIES");
+		if (maxRetriesStr != null) {
+			config.setMaxRetries(Integer.valueOf(maxRetriesStr));
 		}
 	}
 }
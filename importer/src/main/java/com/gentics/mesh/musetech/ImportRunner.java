@@ -36,6 +36,94 @@ public class ImportRunner {
 		if (projectNameStr != null) {
 			config.setProjectName(projectNameStr);
 		}
+		String imageConcurrencyStr = System.getenv("MUSETECH_IMAGE_CONCURRENCY");
+		if (imageConcurrencyStr != null) {
+			config.setImageConcurrency(Integer.valueOf(imageConcurrencyStr));
+		}
+		String videoConcurrencyStr = System.getenv("MUSETECH_VIDEO_CONCURRENCY");
+		if (videoConcurrencyStr != null) {
+			config.setVideoConcurrency(Integer.valueOf(videoConcurrencyStr));
+		}
+		String exhibitConcurrencyStr = System.getenv("MUSETECH_EXHIBIT_CONCURRENCY");
+		if (exhibitConcurrencyStr != null) {
+			config.setExhibitConcurrency(Integer.valueOf(exhibitConcurrencyStr));
+		}
+		String nodeConcurrencyStr = System.getenv("MUSETECH_NODE_CONCURRENCY");
+		if (nodeConcurrencyStr != null) {
+			config.setNodeConcurrency(Integer.valueOf(nodeConcurrencyStr));
+		}
+		String deltaStr = System.getenv("MUSETECH_DELTA_IMPORT");
+		if (deltaStr != null) {
+			config.setDeltaImport(Boolean.valueOf(deltaStr));
+		}
+		String manifestPathStr = System.getenv("MUSETECH_MANIFEST_PATH");
+		if (manifestPathStr != null) {
+			config.setManifestPath(manifestPathStr);
+		}
+		String journalPathStr = System.getenv("MUSETECH_JOURNAL_PATH");
+		if (journalPathStr != null) {
+			config.setJournalPath(journalPathStr);
+		}
+		String metricsPathStr = System.getenv("MUSETECH_METRICS_PATH");
+		if (metricsPathStr != null) {
+			config.setMetricsPath(metricsPathStr);
+		}
+		String meshPoolSizeStr = System.getenv("MUSETECH_MESH_POOL_SIZE");
+		if (meshPoolSizeStr != null) {
+			config.setMeshPoolSize(Integer.valueOf(meshPoolSizeStr));
+		}
+		String meshKeepAliveStr = System.getenv("MUSETECH_MESH_KEEP_ALIVE");
+		if (meshKeepAliveStr != null) {
+			config.setMeshKeepAlive(Long.valueOf(meshKeepAliveStr));
+		}
+		String meshMaxRequestsPerHostStr = System.getenv("MUSETECH_MESH_MAX_REQUESTS");
+		if (meshMaxRequestsPerHostStr != null) {
+			config.setMeshMaxRequestsPerHost(Integer.valueOf(meshMaxRequestsPerHostStr));
+		}
+		String meshHttp2Str = System.getenv("MUSETECH_MESH_HTTP2");
+		if (meshHttp2Str != null) {
+			config.setMeshHttp2(Boolean.valueOf(meshHttp2Str));
+		}
+		String meshConnectTimeoutStr = System.getenv("MUSETECH_MESH_CONNECT_TIMEOUT");
+		if (meshConnectTimeoutStr != null) {
+			config.setMeshConnectTimeout(Long.valueOf(meshConnectTimeoutStr));
+		}
+		String meshReadTimeoutStr = System.getenv("MUSETECH_MESH_READ_TIMEOUT");
+		if (meshReadTimeoutStr != null) {
+			config.setMeshReadTimeout(Long.valueOf(meshReadTimeoutStr));
+		}
+		String meshWriteTimeoutStr = System.getenv("MUSETECH_MESH_WRITE_TIMEOUT");
+		if (meshWriteTimeoutStr != null) {
+			config.setMeshWriteTimeout(Long.valueOf(meshWriteTimeoutStr));
+		}
+		String meshTlsSessionCacheSizeStr = System.getenv("MUSETECH_MESH_TLS_SESSION_CACHE_SIZE");
+		if (meshTlsSessionCacheSizeStr != null) {
+			config.setMeshTlsSessionCacheSize(Integer.valueOf(meshTlsSessionCacheSizeStr));
+		}
+		String meshTlsSessionTimeoutStr = System.getenv("MUSETECH_MESH_TLS_SESSION_TIMEOUT");
+		if (meshTlsSessionTimeoutStr != null) {
+			config.setMeshTlsSessionTimeout(Integer.valueOf(meshTlsSessionTimeoutStr));
+		}
+		String audioBitrateStr = System.getenv("MUSETECH_AUDIO_BITRATE");
+		if (audioBitrateStr != null) {
+			config.setAudioBitrate(Integer.valueOf(audioBitrateStr));
+		}
+		String audioConcurrencyStr = System.getenv("MUSETECH_AUDIO_CONCURRENCY");
+		if (audioConcurrencyStr != null) {
+			config.setAudioConcurrency(Integer.valueOf(audioConcurrencyStr));
+		}
+		String imageMaxSizeStr = System.getenv("MUSETECH_IMAGE_MAX_SIZE");
+		if (imageMaxSizeStr != null) {
+			config.setImageMaxSize(Integer.valueOf(imageMaxSizeStr));
+		}
+		String imageQualityStr = System.getenv("MUSETECH_IMAGE_QUALITY");
+		if (imageQualityStr != null) {
+			config.setImageQuality(Float.valueOf(imageQualityStr));
+		}
+		String imageProcessingConcurrencyStr = System.getenv("MUSETECH_IMAGE_PROCESSING_CONCURRENCY");
+		if (imageProcessingConcurrencyStr != null) {
+			config.setImageProcessingConcurrency(Integer.valueOf(imageProcessingConcurrencyStr));
+		}
 	}
 
 }
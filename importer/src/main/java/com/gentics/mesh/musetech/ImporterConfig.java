@@ -9,6 +9,33 @@ public class ImporterConfig {
 	private int port = 8080;
 	private boolean ssl = false;
 
+	private int imageConcurrency = 4;
+	private int videoConcurrency = 1;
+	private int exhibitConcurrency = 4;
+	private int nodeConcurrency = 8;
+
+	private boolean deltaImport = false;
+	private String manifestPath = "import-manifest.json";
+	private String journalPath = "import-journal.log";
+	private String metricsPath = "import-metrics.json";
+
+	private int meshPoolSize = 32;
+	private long meshKeepAlive = 5 * 60 * 1000;
+	private int meshMaxRequestsPerHost = 64;
+	private boolean meshHttp2 = false;
+	private long meshConnectTimeout = 10 * 1000;
+	private long meshReadTimeout = 10 * 60 * 1000;
+	private long meshWriteTimeout = 10 * 60 * 1000;
+	private int meshTlsSessionCacheSize = 100;
+	private int meshTlsSessionTimeout = 24 * 60 * 60;
+
+	private int audioBitrate = 64;
+	private int audioConcurrency = Runtime.getRuntime().availableProcessors();
+
+	private int imageMaxSize = 2048;
+	private float imageQuality = 0.85f;
+	private int imageProcessingConcurrency = Math.min(4, Runtime.getRuntime().availableProcessors());
+
 	public ImporterConfig() {
 	}
 
@@ -43,4 +70,293 @@ public class ImporterConfig {
 	public void setHostname(String hostname) {
 		this.hostname = hostname;
 	}
+
+	/**
+	 * Maximum amount of images which will be created and uploaded in parallel.
+	 * 
+	 * @return
+	 */
+	public int getImageConcurrency() {
+		return imageConcurrency;
+	}
+
+	public void setImageConcurrency(int imageConcurrency) {
+		this.imageConcurrency = imageConcurrency;
+	}
+
+	/**
+	 * Maximum amount of videos which will be created and uploaded in parallel.
+	 * 
+	 * @return
+	 */
+	public int getVideoConcurrency() {
+		return videoConcurrency;
+	}
+
+	public void setVideoConcurrency(int videoConcurrency) {
+		this.videoConcurrency = videoConcurrency;
+	}
+
+	/**
+	 * Maximum amount of exhibits (including their images and audio files) which will be imported in parallel.
+	 * 
+	 * @return
+	 */
+	public int getExhibitConcurrency() {
+		return exhibitConcurrency;
+	}
+
+	public void setExhibitConcurrency(int exhibitConcurrency) {
+		this.exhibitConcurrency = exhibitConcurrency;
+	}
+
+	/**
+	 * Maximum amount of plain nodes (persons, tours, screens) which will be created in parallel.
+	 * 
+	 * @return
+	 */
+	public int getNodeConcurrency() {
+		return nodeConcurrency;
+	}
+
+	public void setNodeConcurrency(int nodeConcurrency) {
+		this.nodeConcurrency = nodeConcurrency;
+	}
+
+	/**
+	 * Flag which controls whether only changed elements should be imported. A full import will be run if no manifest of a previous import exists or if
+	 * the schemas have been changed.
+	 * 
+	 * @return
+	 */
+	public boolean isDeltaImport() {
+		return deltaImport;
+	}
+
+	public void setDeltaImport(boolean deltaImport) {
+		this.deltaImport = deltaImport;
+	}
+
+	/**
+	 * Path to the manifest file which stores the fingerprints of the last import.
+	 * 
+	 * @return
+	 */
+	public String getManifestPath() {
+		return manifestPath;
+	}
+
+	public void setManifestPath(String manifestPath) {
+		this.manifestPath = manifestPath;
+	}
+
+	/**
+	 * Path to the journal which records the progress of a full import. An interrupted import will be resumed from this journal.
+	 * 
+	 * @return
+	 */
+	public String getJournalPath() {
+		return journalPath;
+	}
+
+	public void setJournalPath(String journalPath) {
+		this.journalPath = journalPath;
+	}
+
+	/**
+	 * Path to the file to which the timings of the import phases are written once the import terminates.
+	 * 
+	 * @return
+	 */
+	public String getMetricsPath() {
+		return metricsPath;
+	}
+
+	public void setMetricsPath(String metricsPath) {
+		this.metricsPath = metricsPath;
+	}
+
+	/**
+	 * Maximum amount of idle connections to Mesh which are kept open for reuse.
+	 * 
+	 * @return
+	 */
+	public int getMeshPoolSize() {
+		return meshPoolSize;
+	}
+
+	public void setMeshPoolSize(int meshPoolSize) {
+		this.meshPoolSize = meshPoolSize;
+	}
+
+	/**
+	 * Time in milliseconds after which idle connections to Mesh are closed.
+	 * 
+	 * @return
+	 */
+	public long getMeshKeepAlive() {
+		return meshKeepAlive;
+	}
+
+	public void setMeshKeepAlive(long meshKeepAlive) {
+		this.meshKeepAlive = meshKeepAlive;
+	}
+
+	/**
+	 * Maximum amount of concurrent requests to Mesh. Should be at least the sum of the configured concurrencies. Further requests are queued by the
+	 * client.
+	 * 
+	 * @return
+	 */
+	public int getMeshMaxRequestsPerHost() {
+		return meshMaxRequestsPerHost;
+	}
+
+	public void setMeshMaxRequestsPerHost(int meshMaxRequestsPerHost) {
+		this.meshMaxRequestsPerHost = meshMaxRequestsPerHost;
+	}
+
+	/**
+	 * Flag which indicates whether HTTP/2 should be negotiated with Mesh. Only applies to SSL connections. Disabled by default since parallel uploads
+	 * perform better on separate HTTP/1.1 connections than multiplexed over a single connection.
+	 * 
+	 * @return
+	 */
+	public boolean isMeshHttp2() {
+		return meshHttp2;
+	}
+
+	public void setMeshHttp2(boolean meshHttp2) {
+		this.meshHttp2 = meshHttp2;
+	}
+
+	/**
+	 * Timeout in milliseconds for establishing a connection to Mesh.
+	 * 
+	 * @return
+	 */
+	public long getMeshConnectTimeout() {
+		return meshConnectTimeout;
+	}
+
+	public void setMeshConnectTimeout(long meshConnectTimeout) {
+		this.meshConnectTimeout = meshConnectTimeout;
+	}
+
+	/**
+	 * Timeout in milliseconds for reading from a connection to Mesh. Large enough for Mesh to process big uploads.
+	 * 
+	 * @return
+	 */
+	public long getMeshReadTimeout() {
+		return meshReadTimeout;
+	}
+
+	public void setMeshReadTimeout(long meshReadTimeout) {
+		this.meshReadTimeout = meshReadTimeout;
+	}
+
+	/**
+	 * Timeout in milliseconds for writing to a connection to Mesh.
+	 * 
+	 * @return
+	 */
+	public long getMeshWriteTimeout() {
+		return meshWriteTimeout;
+	}
+
+	public void setMeshWriteTimeout(long meshWriteTimeout) {
+		this.meshWriteTimeout = meshWriteTimeout;
+	}
+
+	/**
+	 * Amount of TLS sessions which are cached for resumption. Resumed sessions skip the full handshake when a new connection is opened.
+	 * 
+	 * @return
+	 */
+	public int getMeshTlsSessionCacheSize() {
+		return meshTlsSessionCacheSize;
+	}
+
+	public void setMeshTlsSessionCacheSize(int meshTlsSessionCacheSize) {
+		this.meshTlsSessionCacheSize = meshTlsSessionCacheSize;
+	}
+
+	/**
+	 * Time in seconds for which cached TLS sessions can be resumed.
+	 * 
+	 * @return
+	 */
+	public int getMeshTlsSessionTimeout() {
+		return meshTlsSessionTimeout;
+	}
+
+	public void setMeshTlsSessionTimeout(int meshTlsSessionTimeout) {
+		this.meshTlsSessionTimeout = meshTlsSessionTimeout;
+	}
+
+	/**
+	 * Bitrate in kbit/s of the MP3 files which are encoded from the generated WAV files.
+	 * 
+	 * @return
+	 */
+	public int getAudioBitrate() {
+		return audioBitrate;
+	}
+
+	public void setAudioBitrate(int audioBitrate) {
+		this.audioBitrate = audioBitrate;
+	}
+
+	/**
+	 * Maximum amount of audio files which will be transcoded in parallel.
+	 * 
+	 * @return
+	 */
+	public int getAudioConcurrency() {
+		return audioConcurrency;
+	}
+
+	public void setAudioConcurrency(int audioConcurrency) {
+		this.audioConcurrency = audioConcurrency;
+	}
+
+	/**
+	 * Maximum width and height in pixels of the uploaded images. Larger images are scaled down before the upload.
+	 * 
+	 * @return
+	 */
+	public int getImageMaxSize() {
+		return imageMaxSize;
+	}
+
+	public void setImageMaxSize(int imageMaxSize) {
+		this.imageMaxSize = imageMaxSize;
+	}
+
+	/**
+	 * Quality between 0 and 1 which is used to re-encode the images as JPEG.
+	 * 
+	 * @return
+	 */
+	public float getImageQuality() {
+		return imageQuality;
+	}
+
+	public void setImageQuality(float imageQuality) {
+		this.imageQuality = imageQuality;
+	}
+
+	/**
+	 * Maximum amount of images which will be processed in parallel. Each decoded image is held in memory while it gets processed.
+	 * 
+	 * @return
+	 */
+	public int getImageProcessingConcurrency() {
+		return imageProcessingConcurrency;
+	}
+
+	public void setImageProcessingConcurrency(int imageProcessingConcurrency) {
+		this.imageProcessingConcurrency = imageProcessingConcurrency;
+	}
 }
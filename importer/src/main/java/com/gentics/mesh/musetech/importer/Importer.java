@@ -74,6 +74,13 @@ public interface Importer {
 
 	Completable importNodes(ProjectResponse project);
 
+	/**
+	 * Validate the import data without contacting Mesh.
+	 * 
+	 * @return Report which lists all found problems
+	 */
+	ValidationReport validate();
+
 	void run();
 
 }
@@ -0,0 +1,63 @@
+package com.gentics.mesh.musetech.importer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of the pre-flight validation of the import data.
+ */
+public class ValidationReport {
+
+	private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+	private final List<String> warnings = Collections.synchronizedList(new ArrayList<>());
+
+	private long duration;
+
+	public void error(String message) {
+		errors.add(message);
+	}
+
+	public void warn(String message) {
+		warnings.add(message);
+	}
+
+	public List<String> getErrors() {
+		return errors;
+	}
+
+	public List<String> getWarnings() {
+		return warnings;
+	}
+
+	public boolean hasErrors() {
+		return !errors.isEmpty();
+	}
+
+	public long getDuration() {
+		return duration;
+	}
+
+	public ValidationReport setDuration(long duration) {
+		this.duration = duration;
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("Validation took " + duration + "[ms]. Found {" + errors.size() + "} errors and {" + warnings.size() + "} warnings.");
+		synchronized (errors) {
+			for (String error : errors) {
+				builder.append("\n  ERROR: " + error);
+			}
+		}
+		synchronized (warnings) {
+			for (String warning : warnings) {
+				builder.append("\n  WARN: " + warning);
+			}
+		}
+		return builder.toString();
+	}
+}
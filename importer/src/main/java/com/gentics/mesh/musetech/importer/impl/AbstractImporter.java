@@ -1,7 +1,7 @@
 package com.gentics.mesh.musetech.importer.impl;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.gentics.mesh.core.rest.project.ProjectResponse;
 import com.gentics.mesh.core.rest.role.RolePermissionRequest;
@@ -9,6 +9,7 @@ import com.gentics.mesh.importer.helper.ImportUtils;
 import com.gentics.mesh.musetech.ImporterConfig;
 import com.gentics.mesh.musetech.importer.Importer;
 import com.gentics.mesh.rest.client.MeshRestClient;
+import com.gentics.mesh.rest.client.MeshRestClientConfig;
 
 import io.reactivex.Completable;
 import io.reactivex.Single;
@@ -17,13 +18,26 @@ public abstract class AbstractImporter implements Importer {
 
 	protected final MeshRestClient client;
 
-	protected Map<String, String> fileIdMap = new HashMap<>();
+	protected Map<String, String> fileIdMap = new ConcurrentHashMap<>();
 
 	protected ImporterConfig config;
 
+	protected final ImportScheduler scheduler;
+
+	protected final ImportMetrics metrics = new ImportMetrics();
+
+	protected final BinaryUploader uploader;
+
 	public AbstractImporter(ImporterConfig config) {
 		this.config = config;
-		client = MeshRestClient.create(config.getHostname(), config.getPort(),config.isSsl());
+		this.scheduler = new ImportScheduler(config);
+		MeshRestClientConfig clientConfig = MeshRestClientConfig.newConfig()
+			.setHost(config.getHostname())
+			.setPort(config.getPort())
+			.setSsl(config.isSsl())
+			.build();
+		client = MeshRestClient.create(clientConfig, MeshHttpClientFactory.create(config));
+		this.uploader = new BinaryUploader(client, config.getProjectName(), metrics);
 	}
 
 	@Override
@@ -0,0 +1,221 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.apache.commons.io.FileUtils;
+
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import net.sourceforge.lame.lowlevel.LameEncoder;
+import net.sourceforge.lame.mp3.Lame;
+import net.sourceforge.lame.mp3.MPEGMode;
+
+/**
+ * Transcodes the generated PCM WAV files to MP3 so that only the compressed audio gets uploaded. The encoder is a pure Java port of LAME. Files are
+ * encoded in parallel on the computation scheduler which is sized by the amount of available cores.
+ * <p>
+ * The manifest records the hash of the WAV file and the encoder settings from which each MP3 file was created. An MP3 file is encoded again when it is
+ * missing, has no manifest entry, or when its WAV file or the encoder settings changed. Entries with the {@link #EXTERNAL} encoder denote MP3 files
+ * which were encoded by other tools. Those are kept until their WAV file changes.
+ */
+public class AudioTranscoder {
+
+	private static final Logger log = LoggerFactory.getLogger(AudioTranscoder.class);
+
+	public static final String MANIFEST_NAME = "transcode-manifest.json";
+
+	/**
+	 * Encoder of MP3 files which were not created by the transcoder.
+	 */
+	public static final String EXTERNAL = "external";
+
+	private final File dir;
+
+	private final File manifestFile;
+
+	private final int bitrate;
+
+	private final int concurrency;
+
+	private final Map<String, JsonObject> files = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a new transcoder for the audio files of the directory.
+	 * 
+	 * @param dir
+	 *            Directory which contains the WAV files and the manifest
+	 * @param bitrate
+	 *            Bitrate of the MP3 files in kbit/s
+	 * @param concurrency
+	 *            Maximum amount of files which are encoded in parallel
+	 * @throws IOException
+	 */
+	public AudioTranscoder(File dir, int bitrate, int concurrency) throws IOException {
+		this.dir = dir;
+		this.manifestFile = new File(dir, MANIFEST_NAME);
+		this.bitrate = bitrate;
+		this.concurrency = Math.max(1, concurrency);
+		if (manifestFile.exists()) {
+			JsonObject json = new JsonObject(FileUtils.readFileToString(manifestFile, StandardCharsets.UTF_8));
+			JsonObject entries = json.getJsonObject("files", new JsonObject());
+			for (String name : entries.fieldNames()) {
+				files.put(name, entries.getJsonObject(name));
+			}
+		}
+	}
+
+	/**
+	 * Transcode all WAV files of the directory whose MP3 file is missing or outdated. The manifest is written once all files have been processed.
+	 * 
+	 * @return
+	 */
+	public Completable transcodeAll() {
+		return Completable.defer(() -> {
+			File[] wavs = dir.listFiles((d, name) -> name.endsWith(".wav"));
+			List<File> pending = wavs == null ? Collections.emptyList()
+				: Arrays.stream(wavs).filter(this::isOutdated).sorted().collect(Collectors.toList());
+			if (pending.isEmpty()) {
+				return Completable.complete();
+			}
+			int total = pending.size();
+			AtomicInteger done = new AtomicInteger();
+			log.info("Transcoding {" + total + "} audio files using {" + concurrency + "} threads");
+			return Flowable.fromIterable(pending).flatMapCompletable(wav -> {
+				return Completable.fromAction(() -> {
+					File mp3 = target(wav);
+					transcode(wav, mp3);
+					record(mp3, Fingerprint.of(wav), settings());
+				}).subscribeOn(Schedulers.computation()).doOnComplete(() -> {
+					log.info("Transcoded audio {" + done.incrementAndGet() + "/" + total + "} {" + wav + "}");
+				});
+			}, false, concurrency).doFinally(this::save);
+		});
+	}
+
+	/**
+	 * Check whether the MP3 file of the WAV file needs to be encoded.
+	 * 
+	 * @param wav
+	 * @return
+	 */
+	boolean isOutdated(File wav) {
+		File mp3 = target(wav);
+		JsonObject entry = files.get(mp3.getName());
+		if (!mp3.exists() || entry == null) {
+			return true;
+		}
+		if (!entry.getString("wav", "").equals(Fingerprint.of(wav))) {
+			return true;
+		}
+		String encoder = entry.getString("encoder");
+		return !EXTERNAL.equals(encoder) && !settings().equals(encoder);
+	}
+
+	/**
+	 * Record that the MP3 file was encoded from the WAV file with the given hash.
+	 * 
+	 * @param mp3
+	 * @param wavHash
+	 * @param encoder
+	 *            Encoder settings or {@link #EXTERNAL}
+	 */
+	void record(File mp3, String wavHash, String encoder) {
+		files.put(mp3.getName(), new JsonObject().put("wav", wavHash).put("encoder", encoder));
+	}
+
+	/**
+	 * Return the key of the encoder settings.
+	 * 
+	 * @return
+	 */
+	public String settings() {
+		return "jump3r:" + bitrate + "k";
+	}
+
+	/**
+	 * Write the manifest to disk.
+	 */
+	public void save() {
+		JsonObject json = new JsonObject();
+		files.keySet().stream().sorted().forEach(name -> json.put(name, files.get(name)));
+		try {
+			FileUtils.writeStringToFile(manifestFile, new JsonObject().put("files", json).encodePrettily(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			log.error("Could not write transcode manifest {" + manifestFile + "}", e);
+		}
+	}
+
+	/**
+	 * Encode the WAV file as MP3. The audio is streamed through the encoder and written to a temporary file which replaces the target once the encoding
+	 * has finished.
+	 * 
+	 * @param wav
+	 * @param mp3
+	 * @throws IOException
+	 */
+	public void transcode(File wav, File mp3) throws IOException {
+		Path target = mp3.toPath();
+		Path tmp = target.resolveSibling(mp3.getName() + ".tmp");
+		try (InputStream in = new BufferedInputStream(new FileInputStream(wav)); AudioInputStream audio = AudioSystem.getAudioInputStream(in)) {
+			AudioFormat format = audio.getFormat();
+			MPEGMode mode = format.getChannels() == 1 ? MPEGMode.MONO : MPEGMode.JOINT_STEREO;
+			LameEncoder encoder = new LameEncoder(format, bitrate, mode, Lame.QUALITY_HIGH, false);
+			try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING); OutputStream out = Channels.newOutputStream(channel)) {
+				byte[] pcm = new byte[encoder.getPCMBufferSize()];
+				byte[] encoded = new byte[encoder.getMP3BufferSize()];
+				int read;
+				while ((read = audio.read(pcm)) > 0) {
+					out.write(encoded, 0, encoder.encodeBuffer(pcm, 0, read, encoded));
+				}
+				out.write(encoded, 0, encoder.encodeFinish(encoded));
+			} finally {
+				encoder.close();
+			}
+			Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (UnsupportedAudioFileException e) {
+			throw new IOException("The audio file {" + wav + "} is no PCM WAV file", e);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	/**
+	 * Return the MP3 file for the WAV file.
+	 * 
+	 * @param wav
+	 * @return
+	 */
+	public static File target(File wav) {
+		String name = wav.getName();
+		return new File(wav.getParentFile(), name.substring(0, name.length() - ".wav".length()) + ".mp3");
+	}
+}
@@ -0,0 +1,114 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.gentics.mesh.core.rest.node.NodeResponse;
+import com.gentics.mesh.core.rest.node.field.BinaryField;
+import com.gentics.mesh.parameter.ParameterProvider;
+import com.gentics.mesh.rest.client.MeshRestClient;
+
+import io.reactivex.Single;
+import io.reactivex.functions.BiFunction;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Upload layer for binary fields. The SHA-512 sum of each file is computed once and compared with the sum which Mesh reports for the binary field of
+ * the node. The upload will be skipped when Mesh already stores the identical binary. This can only happen for nodes which are created with a fixed
+ * uuid and therefore already exist in delta and resumed imports. Newly created nodes have no binary yet.
+ * <p>
+ * Uploads stream the file from a {@link FileChannel} which is opened lazily and always closed, so the amount of open files is bound by the amount of
+ * in-flight uploads.
+ * <p>
+ * The uploads are not zero-copy. The Mesh REST client only accepts an {@link InputStream}, so neither {@link FileChannel#transferTo} nor an
+ * asynchronous file can hand the data to the socket. The client copies the stream in small chunks instead, which keeps the heap usage per upload
+ * constant regardless of the file size.
+ */
+public class BinaryUploader {
+
+	private static final Logger log = LoggerFactory.getLogger(BinaryUploader.class);
+
+	private final MeshRestClient client;
+
+	private final String projectName;
+
+	private final ImportMetrics metrics;
+
+	private final Map<String, String> sha512Cache = new ConcurrentHashMap<>();
+
+	public BinaryUploader(MeshRestClient client, String projectName, ImportMetrics metrics) {
+		this.client = client;
+		this.projectName = projectName;
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Upload the file to the binary field of the node unless the field already contains the same binary.
+	 * 
+	 * @param phase
+	 *            Import phase to which the uploaded bytes are accounted
+	 * @param node
+	 *            Node to which the binary should be uploaded
+	 * @param fieldKey
+	 *            Name of the binary field
+	 * @param file
+	 *            File to upload
+	 * @param contentType
+	 *            Mimetype of the file
+	 * @param parameters
+	 * @return Updated node or the given node if the upload was skipped
+	 */
+	public Single<NodeResponse> upload(String phase, NodeResponse node, String fieldKey, File file, String contentType, ParameterProvider... parameters) {
+		return Single.defer(() -> {
+			BinaryField current = node.getFields().getBinaryField(fieldKey);
+			if (current != null && sha512(file).equals(current.getSha512sum())) {
+				log.info("Binary {" + file.getName() + "} of node {" + node.getUuid() + "} is unchanged. Skipping upload.");
+				return Single.just(node);
+			}
+			return stream(file, (ins, size) -> {
+				return client.updateNodeBinaryField(projectName, node.getUuid(), node.getLanguage(), node.getVersion(), fieldKey, ins, size,
+					file.getName(), contentType, parameters).toSingle()
+					.doOnSuccess(updated -> metrics.addBytes(phase, size));
+			});
+		});
+	}
+
+	/**
+	 * Stream the file to the given upload operation. The file channel is only opened once the upload gets subscribed and will be closed when the upload
+	 * terminates or gets disposed. The client reads the channel through a stream and copies the data chunk by chunk into the request body, so the file
+	 * is never loaded onto the heap as a whole.
+	 * 
+	 * @param file
+	 * @param upload
+	 *            Upload operation which receives the stream and the file size
+	 * @return
+	 */
+	private Single<NodeResponse> stream(File file, BiFunction<InputStream, Long, Single<NodeResponse>> upload) {
+		return Single.using(() -> FileChannel.open(file.toPath(), StandardOpenOption.READ), channel -> {
+			return upload.apply(Channels.newInputStream(channel), channel.size());
+		}, channel -> {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				log.error("Could not close file {" + file + "}", e);
+			}
+		});
+	}
+
+	/**
+	 * Return the SHA-512 sum of the file. The sum is only computed once per file.
+	 * 
+	 * @param file
+	 * @return
+	 */
+	public String sha512(File file) {
+		return sha512Cache.computeIfAbsent(file.getAbsolutePath(), path -> Fingerprint.hash(file, "SHA-512"));
+	}
+}
@@ -0,0 +1,90 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Utility to compute the SHA-256 fingerprints which are used to detect changed import data.
+ */
+public final class Fingerprint {
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private Fingerprint() {
+	}
+
+	/**
+	 * Hash the given parts. Parts which are null will be hashed as empty strings.
+	 * 
+	 * @param parts
+	 * @return Hex encoded SHA-256 hash
+	 */
+	public static String of(String... parts) {
+		MessageDigest digest = digest("SHA-256");
+		for (String part : parts) {
+			if (part != null) {
+				digest.update(part.getBytes(StandardCharsets.UTF_8));
+			}
+			// Separate the parts so that ("ab", "c") and ("a", "bc") differ
+			digest.update((byte) 0);
+		}
+		return hex(digest.digest());
+	}
+
+	/**
+	 * Hash the contents of the given file. A missing file results in a null fingerprint.
+	 * 
+	 * @param file
+	 * @return Hex encoded SHA-256 hash or null
+	 */
+	public static String of(File file) {
+		return hash(file, "SHA-256");
+	}
+
+	/**
+	 * Hash the contents of the given file using the given algorithm.
+	 * 
+	 * @param file
+	 * @param algorithm
+	 * @return Hex encoded hash or null if the file does not exist
+	 */
+	public static String hash(File file, String algorithm) {
+		if (!file.exists()) {
+			return null;
+		}
+		MessageDigest digest = digest(algorithm);
+		byte[] buffer = new byte[64 * 1024];
+		try (InputStream ins = Files.newInputStream(file.toPath())) {
+			int read;
+			while ((read = ins.read(buffer)) != -1) {
+				digest.update(buffer, 0, read);
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Could not hash file {" + file + "}", e);
+		}
+		return hex(digest.digest());
+	}
+
+	private static MessageDigest digest(String algorithm) {
+		try {
+			return MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("Hash algorithm {" + algorithm + "} not available", e);
+		}
+	}
+
+	private static String hex(byte[] bytes) {
+		char[] chars = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; i++) {
+			int v = bytes[i] & 0xFF;
+			chars[i * 2] = HEX[v >>> 4];
+			chars[i * 2 + 1] = HEX[v & 0x0F];
+		}
+		return new String(chars);
+	}
+}
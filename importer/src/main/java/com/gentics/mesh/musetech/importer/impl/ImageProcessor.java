@@ -0,0 +1,453 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.color.ColorSpace;
+import java.awt.color.ICC_ColorSpace;
+import java.awt.color.ICC_Profile;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorConvertOp;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.InflaterInputStream;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+import org.w3c.dom.NodeList;
+
+import io.reactivex.Completable;
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+import io.vertx.core.http.impl.MimeMapping;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Produces the web optimized renditions of the images before they get uploaded. Images are scaled down to the configured maximum dimension and
+ * re-encoded as progressive JPEG without any metadata. Images with an alpha channel are written as PNG instead. Since the metadata is dropped, the
+ * EXIF orientation is applied to the pixels and images with an embedded color profile are converted to sRGB first. Renditions are stored in a
+ * directory keyed by the hash of the original and the processing settings, so unchanged images are only processed once.
+ */
+public class ImageProcessor {
+
+	private static final Logger log = LoggerFactory.getLogger(ImageProcessor.class);
+
+	public static final String RENDITION_DIR_NAME = ".renditions";
+
+	/**
+	 * Version of the processing steps. Needs to be increased whenever the renditions of the same settings would differ.
+	 */
+	private static final int VERSION = 2;
+
+	private static final int EXIF_MARKER = 0xE1;
+
+	private static final int ORIENTATION_TAG = 0x0112;
+
+	private final File renditionDir;
+
+	private final int maxSize;
+
+	private final float quality;
+
+	private final int concurrency;
+
+	private final Map<String, Rendition> renditions = new ConcurrentHashMap<>();
+
+	/**
+	 * Create a new processor.
+	 * 
+	 * @param imageDir
+	 *            Directory of the original images. The renditions are stored in a sub directory.
+	 * @param maxSize
+	 *            Maximum width and height of the renditions in pixels
+	 * @param quality
+	 *            JPEG quality between 0 and 1
+	 * @param concurrency
+	 *            Maximum amount of images which are processed in parallel
+	 */
+	public ImageProcessor(File imageDir, int maxSize, float quality, int concurrency) {
+		this.renditionDir = new File(imageDir, RENDITION_DIR_NAME);
+		this.maxSize = maxSize;
+		this.quality = quality;
+		this.concurrency = Math.max(1, concurrency);
+	}
+
+	/**
+	 * Process the images in parallel. Images which can't be processed are logged and will be uploaded as they are.
+	 * 
+	 * @param images
+	 * @return
+	 */
+	public Completable process(Collection<File> images) {
+		return Completable.defer(() -> {
+			int total = images.size();
+			AtomicInteger done = new AtomicInteger();
+			log.info("Processing {" + total + "} images using {" + concurrency + "} threads");
+			return Flowable.fromIterable(images).flatMapCompletable(original -> {
+				return Completable.fromAction(() -> {
+					Rendition rendition = render(original);
+					renditions.put(original.getName(), rendition);
+					log.info("Processed image {" + done.incrementAndGet() + "/" + total + "} {" + original.getName() + "} {" + original.length() + "} => {"
+						+ rendition.getFile().length() + "} bytes");
+				}).subscribeOn(Schedulers.computation()).onErrorComplete(err -> {
+					log.error("Could not process image {" + original + "}. Using the original.", err);
+					return true;
+				});
+			}, false, concurrency);
+		});
+	}
+
+	/**
+	 * Return the rendition which should be uploaded for the original image. The original will be returned when the image has not been processed.
+	 * 
+	 * @param original
+	 * @return
+	 */
+	public Rendition rendition(File original) {
+		Rendition rendition = renditions.get(original.getName());
+		if (rendition == null) {
+			return new Rendition(original, detectMimeType(original));
+		}
+		return rendition;
+	}
+
+	/**
+	 * Return a key for the processing settings. The key changes whenever the renditions of the same original would differ.
+	 * 
+	 * @return
+	 */
+	public String settings() {
+		return maxSize + ":" + quality + ":v" + VERSION;
+	}
+
+	private Rendition render(File original) throws IOException {
+		File dir = new File(renditionDir, Fingerprint.of(Fingerprint.of(original), settings()));
+		File[] existing = dir.listFiles((d, name) -> !name.endsWith(".tmp"));
+		if (existing != null && existing.length == 1) {
+			return new Rendition(existing[0], detectMimeType(existing[0]));
+		}
+
+		BufferedImage source;
+		IIOMetadata metadata;
+		try (ImageInputStream in = ImageIO.createImageInputStream(original)) {
+			Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+			if (readers == null || !readers.hasNext()) {
+				throw new IOException("No image reader found for {" + original + "}");
+			}
+			ImageReader reader = readers.next();
+			try {
+				reader.setInput(in, true, false);
+				source = reader.read(0);
+				metadata = reader.getImageMetadata(0);
+			} finally {
+				reader.dispose();
+			}
+		}
+		boolean alpha = source.getColorModel().hasAlpha();
+		boolean converted = false;
+		// The JPEG reader applies embedded profiles itself while the PNG reader only exposes them
+		ICC_Profile profile = pngProfile(metadata);
+		if (profile != null) {
+			source = applyProfile(source, profile, alpha);
+			converted = true;
+		} else if (!isSRGB(source)) {
+			source = toSRGB(source, alpha);
+			converted = true;
+		}
+		int orientation = orientation(metadata);
+		if (orientation > 1 && orientation <= 8) {
+			source = orient(source, orientation, alpha);
+			converted = true;
+		}
+		int width = source.getWidth();
+		int height = source.getHeight();
+		double scale = Math.min(1, (double) maxSize / Math.max(width, height));
+		BufferedImage image = source;
+		if (scale < 1) {
+			image = resize(source, Math.max(1, (int) Math.round(width * scale)), Math.max(1, (int) Math.round(height * scale)), alpha);
+		}
+
+		String baseName = FilenameUtils.getBaseName(original.getName());
+		File target = new File(dir, baseName + (alpha ? ".png" : ".jpg"));
+		File tmp = new File(dir, target.getName() + ".tmp");
+		Files.createDirectories(dir.toPath());
+		try {
+			if (alpha) {
+				ImageIO.write(image, "png", tmp);
+			} else {
+				writeJpeg(image, tmp);
+			}
+			// Images which already are small get re-encoded without a benefit
+			if (scale == 1 && !converted && tmp.length() >= original.length()) {
+				target = new File(dir, original.getName());
+				FileUtils.copyFile(original, tmp);
+			}
+			Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmp.toPath());
+		}
+		return new Rendition(target, detectMimeType(target));
+	}
+
+	/**
+	 * Check whether the pixels of the image are sRGB. Grayscale images are kept as they are.
+	 */
+	private static boolean isSRGB(BufferedImage image) {
+		ColorSpace colorSpace = image.getColorModel().getColorSpace();
+		return colorSpace.isCS_sRGB() || colorSpace.getType() == ColorSpace.TYPE_GRAY;
+	}
+
+	/**
+	 * Convert the image from its embedded color profile to sRGB. Browsers assume sRGB for images without a profile.
+	 */
+	private static BufferedImage toSRGB(BufferedImage source, boolean alpha) {
+		BufferedImage target = new BufferedImage(source.getWidth(), source.getHeight(), alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+		new ColorConvertOp(null).filter(source, target);
+		return target;
+	}
+
+	/**
+	 * Interpret the pixel values of the image in the color profile and convert them to sRGB. The image is copied to a RGB image first since the values
+	 * of palette and byte images can't be converted directly.
+	 */
+	private static BufferedImage applyProfile(BufferedImage source, ICC_Profile profile, boolean alpha) {
+		int w = source.getWidth();
+		int h = source.getHeight();
+		int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+		BufferedImage copy = new BufferedImage(w, h, type);
+		Graphics2D g = copy.createGraphics();
+		try {
+			g.drawImage(source, 0, 0, null);
+		} finally {
+			g.dispose();
+		}
+		BufferedImage target = new BufferedImage(w, h, type);
+		int[] colorBands = { 0, 1, 2 };
+		WritableRaster colors = copy.getRaster().createWritableChild(0, 0, w, h, 0, 0, colorBands);
+		ColorConvertOp op = new ColorConvertOp(new ICC_ColorSpace(profile), ColorSpace.getInstance(ColorSpace.CS_sRGB), null);
+		op.filter(colors, target.getRaster().createWritableChild(0, 0, w, h, 0, 0, colorBands));
+		if (alpha) {
+			target.getAlphaRaster().setRect(copy.getAlphaRaster());
+		}
+		return target;
+	}
+
+	/**
+	 * Read the RGB color profile which is embedded in the iCCP chunk of a PNG image.
+	 * 
+	 * @return Profile or null when the image is no PNG image or has no RGB profile
+	 */
+	private static ICC_Profile pngProfile(IIOMetadata metadata) {
+		if (metadata == null || !"javax_imageio_png_1.0".equals(metadata.getNativeMetadataFormatName())) {
+			return null;
+		}
+		IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree("javax_imageio_png_1.0");
+		NodeList chunks = root.getElementsByTagName("iCCP");
+		if (chunks.getLength() == 0 || !(((IIOMetadataNode) chunks.item(0)).getUserObject() instanceof byte[])) {
+			return null;
+		}
+		byte[] compressed = (byte[]) ((IIOMetadataNode) chunks.item(0)).getUserObject();
+		try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+			ICC_Profile profile = ICC_Profile.getInstance(IOUtils.toByteArray(in));
+			return profile.getColorSpaceType() == ColorSpace.TYPE_RGB ? profile : null;
+		} catch (IOException | IllegalArgumentException e) {
+			log.warn("Ignoring invalid color profile", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Rotate and mirror the image according to the EXIF orientation. Orientations 5 to 8 swap the width and the height.
+	 */
+	static BufferedImage orient(BufferedImage source, int orientation, boolean alpha) {
+		int w = source.getWidth();
+		int h = source.getHeight();
+		AffineTransform transform;
+		switch (orientation) {
+		case 2:
+			transform = new AffineTransform(-1, 0, 0, 1, w, 0);
+			break;
+		case 3:
+			transform = new AffineTransform(-1, 0, 0, -1, w, h);
+			break;
+		case 4:
+			transform = new AffineTransform(1, 0, 0, -1, 0, h);
+			break;
+		case 5:
+			transform = new AffineTransform(0, 1, 1, 0, 0, 0);
+			break;
+		case 6:
+			transform = new AffineTransform(0, 1, -1, 0, h, 0);
+			break;
+		case 7:
+			transform = new AffineTransform(0, -1, -1, 0, h, w);
+			break;
+		case 8:
+			transform = new AffineTransform(0, -1, 1, 0, 0, w);
+			break;
+		default:
+			return source;
+		}
+		boolean swap = orientation >= 5;
+		BufferedImage target = new BufferedImage(swap ? h : w, swap ? w : h, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = target.createGraphics();
+		try {
+			g.drawImage(source, transform, null);
+		} finally {
+			g.dispose();
+		}
+		return target;
+	}
+
+	/**
+	 * Read the orientation from the EXIF data of a JPEG image. The JPEG reader exposes the EXIF segment as an unknown APP1 marker which contains a TIFF
+	 * structure. The orientation is stored in its first IFD.
+	 * 
+	 * @return Orientation between 1 and 8 or 0 when the image contains no orientation
+	 */
+	private static int orientation(IIOMetadata metadata) {
+		if (metadata == null || !"javax_imageio_jpeg_image_1.0".equals(metadata.getNativeMetadataFormatName())) {
+			return 0;
+		}
+		IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree("javax_imageio_jpeg_image_1.0");
+		NodeList markers = root.getElementsByTagName("unknown");
+		for (int i = 0; i < markers.getLength(); i++) {
+			IIOMetadataNode marker = (IIOMetadataNode) markers.item(i);
+			if (!String.valueOf(EXIF_MARKER).equals(marker.getAttribute("MarkerTag")) || !(marker.getUserObject() instanceof byte[])) {
+				continue;
+			}
+			byte[] data = (byte[]) marker.getUserObject();
+			if (data.length < 14 || !"Exif".equals(new String(data, 0, 4, StandardCharsets.US_ASCII))) {
+				continue;
+			}
+			try {
+				ByteBuffer tiff = ByteBuffer.wrap(data, 6, data.length - 6).slice();
+				tiff.order(tiff.get(0) == 'I' ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+				int ifd = tiff.getInt(4);
+				int count = tiff.getShort(ifd) & 0xFFFF;
+				for (int e = 0; e < count; e++) {
+					int entry = ifd + 2 + e * 12;
+					if ((tiff.getShort(entry) & 0xFFFF) == ORIENTATION_TAG) {
+						return tiff.getShort(entry + 8) & 0xFFFF;
+					}
+				}
+			} catch (IndexOutOfBoundsException e) {
+				log.warn("Ignoring malformed EXIF data", e);
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Scale the image down in steps which halve the size at most. Bilinear filtering of a single large step would skip most source pixels.
+	 */
+	private static BufferedImage resize(BufferedImage source, int width, int height, boolean alpha) {
+		int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+		BufferedImage current = source;
+		int w = source.getWidth();
+		int h = source.getHeight();
+		do {
+			w = Math.max(width, w / 2);
+			h = Math.max(height, h / 2);
+			BufferedImage next = new BufferedImage(w, h, type);
+			Graphics2D g = next.createGraphics();
+			try {
+				g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+				g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+				g.drawImage(current, 0, 0, w, h, null);
+			} finally {
+				g.dispose();
+			}
+			current = next;
+		} while (w != width || h != height);
+		return current;
+	}
+
+	/**
+	 * Write the image as progressive JPEG. No metadata is passed to the writer so only the mandatory JFIF header gets written.
+	 */
+	private void writeJpeg(BufferedImage image, File file) throws IOException {
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+		ImageWriteParam param = writer.getDefaultWriteParam();
+		param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+		param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+		param.setCompressionQuality(quality);
+		try (ImageOutputStream out = ImageIO.createImageOutputStream(file)) {
+			writer.setOutput(out);
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+	}
+
+	/**
+	 * Detect the mimetype of the image by its content. The file extension is only used when no image reader recognizes the content.
+	 * 
+	 * @param file
+	 * @return
+	 */
+	public static String detectMimeType(File file) {
+		try (ImageInputStream in = ImageIO.createImageInputStream(file)) {
+			Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+			if (readers != null && readers.hasNext()) {
+				ImageReader reader = readers.next();
+				String[] types = reader.getOriginatingProvider().getMIMETypes();
+				reader.dispose();
+				if (types != null && types.length > 0) {
+					return types[0];
+				}
+			}
+		} catch (IOException e) {
+			log.warn("Could not inspect image {" + file + "}", e);
+		}
+		String mimeType = MimeMapping.getMimeTypeForFilename(file.getName());
+		return mimeType == null ? "application/octet-stream" : mimeType;
+	}
+
+	/**
+	 * File which gets uploaded for an image along with its mimetype.
+	 */
+	public static class Rendition {
+
+		private final File file;
+
+		private final String mimeType;
+
+		public Rendition(File file, String mimeType) {
+			this.file = file;
+			this.mimeType = mimeType;
+		}
+
+		public File getFile() {
+			return file;
+		}
+
+		public String getMimeType() {
+			return mimeType;
+		}
+	}
+}
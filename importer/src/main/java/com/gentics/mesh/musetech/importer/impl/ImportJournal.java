@@ -0,0 +1,157 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+/**
+ * Append-only journal which records the completed phases and created nodes of a full import. A crashed import can be resumed by skipping everything
+ * that has been recorded. The journal gets deleted once the import finishes successfully. Each line contains tab separated values:
+ * 
+ * <pre>
+ * PHASE	schemas
+ * NODE	image:steamengine.jpg	675231da002e47a6abf9bc70981e4d09
+ * </pre>
+ */
+public class ImportJournal {
+
+	private static final Logger log = LoggerFactory.getLogger(ImportJournal.class);
+
+	private static final String PHASE = "PHASE";
+
+	private static final String NODE = "NODE";
+
+	private final File file;
+
+	private final Set<String> phases = ConcurrentHashMap.newKeySet();
+
+	private final Map<String, String> nodes = new ConcurrentHashMap<>();
+
+	private final boolean resume;
+
+	private FileChannel channel;
+
+	private ImportJournal(File file) throws IOException {
+		this.file = file;
+		if (file != null && file.exists()) {
+			for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+				String[] parts = line.split("\t");
+				if (parts.length == 2 && PHASE.equals(parts[0])) {
+					phases.add(parts[1]);
+				} else if (parts.length == 3 && NODE.equals(parts[0])) {
+					nodes.put(parts[1], parts[2]);
+				} else if (!line.isEmpty()) {
+					// A partially written last line may exist if the import crashed while writing it
+					log.warn("Ignoring invalid journal entry {" + line + "}");
+				}
+			}
+		}
+		this.resume = !phases.isEmpty() || !nodes.isEmpty();
+	}
+
+	/**
+	 * Open the journal. Existing entries will be loaded so that the import can be resumed.
+	 * 
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static ImportJournal open(File file) throws IOException {
+		return new ImportJournal(file);
+	}
+
+	/**
+	 * Return a journal which neither contains nor records any entries.
+	 * 
+	 * @return
+	 */
+	public static ImportJournal disabled() {
+		try {
+			return new ImportJournal(null);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Check whether the journal contains entries of a previous import which did not finish.
+	 * 
+	 * @return
+	 */
+	public boolean isResume() {
+		return resume;
+	}
+
+	public boolean isPhaseDone(String phase) {
+		return phases.contains(phase);
+	}
+
+	/**
+	 * Return the uuid of the node which has been recorded for the key.
+	 * 
+	 * @param key
+	 * @return Uuid or null if no node has been recorded
+	 */
+	public String getUuid(String key) {
+		return nodes.get(key);
+	}
+
+	public void phaseDone(String phase) {
+		if (phases.add(phase)) {
+			append(PHASE + "\t" + phase, true);
+		}
+	}
+
+	public void record(String key, String uuid) {
+		nodes.put(key, uuid);
+		append(NODE + "\t" + key + "\t" + uuid, false);
+	}
+
+	/**
+	 * Delete the journal. This should be called once the import finished successfully.
+	 */
+	public synchronized void delete() {
+		if (file == null) {
+			return;
+		}
+		try {
+			if (channel != null) {
+				channel.close();
+				channel = null;
+			}
+			Files.deleteIfExists(file.toPath());
+		} catch (IOException e) {
+			log.error("Could not delete import journal {" + file + "}", e);
+		}
+	}
+
+	private synchronized void append(String line, boolean sync) {
+		if (file == null) {
+			return;
+		}
+		try {
+			if (channel == null) {
+				channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+			}
+			ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			if (sync) {
+				channel.force(false);
+			}
+		} catch (IOException e) {
+			log.error("Could not write to import journal {" + file + "}", e);
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.FileUtils;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Local manifest which stores the fingerprint and node uuid of every imported element. The manifest is used by the delta import to determine which
+ * elements need to be created, updated or deleted.
+ */
+public class ImportManifest {
+
+	private final File file;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	public static class Entry {
+
+		private final String uuid;
+		private final String fingerprint;
+
+		public Entry(String uuid, String fingerprint) {
+			this.uuid = uuid;
+			this.fingerprint = fingerprint;
+		}
+
+		public String getUuid() {
+			return uuid;
+		}
+
+		public String getFingerprint() {
+			return fingerprint;
+		}
+	}
+
+	private ImportManifest(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Load the manifest from the given file. An empty manifest will be returned if the file does not exist.
+	 * 
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	public static ImportManifest load(File file) throws IOException {
+		ImportManifest manifest = new ImportManifest(file);
+		if (file.exists()) {
+			JsonObject json = new JsonObject(FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+			JsonObject entries = json.getJsonObject("entries", new JsonObject());
+			for (String key : entries.fieldNames()) {
+				JsonObject entry = entries.getJsonObject(key);
+				manifest.put(key, entry.getString("uuid"), entry.getString("fingerprint"));
+			}
+		}
+		return manifest;
+	}
+
+	/**
+	 * Write the manifest to disk.
+	 * 
+	 * @throws IOException
+	 */
+	public void save() throws IOException {
+		JsonObject json = new JsonObject();
+		entries.keySet().stream().sorted().forEach(key -> {
+			Entry entry = entries.get(key);
+			json.put(key, new JsonObject().put("uuid", entry.getUuid()).put("fingerprint", entry.getFingerprint()));
+		});
+		FileUtils.writeStringToFile(file, new JsonObject().put("entries", json).encodePrettily(), StandardCharsets.UTF_8);
+	}
+
+	public boolean isEmpty() {
+		return entries.isEmpty();
+	}
+
+	public Entry get(String key) {
+		return entries.get(key);
+	}
+
+	public String getUuid(String key) {
+		Entry entry = entries.get(key);
+		return entry == null ? null : entry.getUuid();
+	}
+
+	public void put(String key, String uuid, String fingerprint) {
+		entries.put(key, new Entry(uuid, fingerprint));
+	}
+
+	public void remove(String key) {
+		entries.remove(key);
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	/**
+	 * Check whether the stored fingerprint for the key matches the given fingerprint.
+	 * 
+	 * @param key
+	 * @param fingerprint
+	 * @return
+	 */
+	public boolean matches(String key, String fingerprint) {
+		Entry entry = entries.get(key);
+		return entry != null && entry.getFingerprint() != null && entry.getFingerprint().equals(fingerprint);
+	}
+
+	/**
+	 * Return all keys which start with the given type prefix.
+	 * 
+	 * @param type
+	 * @return
+	 */
+	public Set<String> keys(String type) {
+		String prefix = type + ":";
+		return entries.keySet().stream().filter(k -> k.startsWith(prefix)).collect(Collectors.toSet());
+	}
+
+	/**
+	 * Build the manifest key for the given element.
+	 * 
+	 * @param type
+	 * @param id
+	 * @return
+	 */
+	public static String key(String type, String id) {
+		return type + ":" + id;
+	}
+}
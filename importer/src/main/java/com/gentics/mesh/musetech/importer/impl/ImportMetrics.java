@@ -0,0 +1,176 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.io.FileUtils;
+
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Registry for the timings of the import phases. Each phase records the latency of every operation in a histogram along with the amount of uploaded
+ * bytes and errors. The wall-clock span of a phase is tracked separately from the summed latencies since the operations of a phase run concurrently.
+ */
+public class ImportMetrics {
+
+	/**
+	 * Upper bounds of the histogram buckets in milliseconds. The last bucket collects all larger values.
+	 */
+	private static final long[] BUCKETS = { 10, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000, 60000 };
+
+	private final Map<String, Phase> phases = new ConcurrentSkipListMap<>();
+
+	private final long start = System.currentTimeMillis();
+
+	/**
+	 * Record the latency of the operation for the given phase.
+	 * 
+	 * @param name
+	 *            Name of the phase
+	 * @param operation
+	 * @return
+	 */
+	public Completable time(String name, Completable operation) {
+		return Completable.defer(() -> {
+			long start = System.nanoTime();
+			Phase phase = phase(name);
+			return operation.doOnComplete(() -> phase.record(start, false)).doOnError(err -> phase.record(start, true));
+		});
+	}
+
+	/**
+	 * Record the latency of the operation for the given phase.
+	 * 
+	 * @param name
+	 *            Name of the phase
+	 * @param operation
+	 * @return
+	 */
+	public <T> Single<T> time(String name, Single<T> operation) {
+		return Single.defer(() -> {
+			long start = System.nanoTime();
+			Phase phase = phase(name);
+			return operation.doOnSuccess(r -> phase.record(start, false)).doOnError(err -> phase.record(start, true));
+		});
+	}
+
+	/**
+	 * Add the size of an uploaded binary to the given phase.
+	 * 
+	 * @param name
+	 * @param bytes
+	 */
+	public void addBytes(String name, long bytes) {
+		phase(name).bytes.add(bytes);
+	}
+
+	private Phase phase(String name) {
+		return phases.computeIfAbsent(name, k -> new Phase());
+	}
+
+	public JsonObject toJson() {
+		JsonObject json = new JsonObject();
+		json.put("duration", System.currentTimeMillis() - start);
+		JsonObject phasesJson = new JsonObject();
+		phases.forEach((name, phase) -> phasesJson.put(name, phase.toJson()));
+		json.put("phases", phasesJson);
+		return json;
+	}
+
+	/**
+	 * Write the metrics to the given file.
+	 * 
+	 * @param file
+	 * @throws IOException
+	 */
+	public void write(File file) throws IOException {
+		FileUtils.writeStringToFile(file, toJson().encodePrettily(), StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append(String.format("%-20s %8s %8s %12s %12s %10s %10s %14s", "phase", "count", "errors", "wall[ms]", "total[ms]", "avg[ms]",
+			"max[ms]", "bytes"));
+		phases.forEach((name, phase) -> {
+			long count = phase.count.sum();
+			long total = phase.totalNanos.sum() / 1_000_000;
+			builder.append("\n");
+			builder.append(String.format("%-20s %8d %8d %12d %12d %10d %10d %14d", name, count, phase.errors.sum(), phase.wallClock(), total,
+				count == 0 ? 0 : total / count, phase.maxNanos.get() / 1_000_000, phase.bytes.sum()));
+		});
+		return builder.toString();
+	}
+
+	private static class Phase {
+
+		private final LongAdder count = new LongAdder();
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong();
+		private final AtomicLong minNanos = new AtomicLong(Long.MAX_VALUE);
+		private final AtomicLong firstStart = new AtomicLong(Long.MAX_VALUE);
+		private final AtomicLong lastEnd = new AtomicLong(Long.MIN_VALUE);
+		private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS.length + 1);
+
+		private void record(long start, boolean failed) {
+			long end = System.nanoTime();
+			long duration = end - start;
+			count.increment();
+			if (failed) {
+				errors.increment();
+			}
+			totalNanos.add(duration);
+			maxNanos.accumulateAndGet(duration, Math::max);
+			minNanos.accumulateAndGet(duration, Math::min);
+			firstStart.accumulateAndGet(start, Math::min);
+			lastEnd.accumulateAndGet(end, Math::max);
+			histogram.incrementAndGet(bucket(duration / 1_000_000));
+		}
+
+		private static int bucket(long millis) {
+			for (int i = 0; i < BUCKETS.length; i++) {
+				if (millis <= BUCKETS[i]) {
+					return i;
+				}
+			}
+			return BUCKETS.length;
+		}
+
+		private long wallClock() {
+			if (count.sum() == 0) {
+				return 0;
+			}
+			return (lastEnd.get() - firstStart.get()) / 1_000_000;
+		}
+
+		private JsonObject toJson() {
+			long count = this.count.sum();
+			JsonObject json = new JsonObject();
+			json.put("count", count);
+			json.put("errors", errors.sum());
+			json.put("bytes", bytes.sum());
+			json.put("wallClock", wallClock());
+			json.put("total", totalNanos.sum() / 1_000_000);
+			json.put("min", count == 0 ? 0 : minNanos.get() / 1_000_000);
+			json.put("max", maxNanos.get() / 1_000_000);
+			JsonArray buckets = new JsonArray();
+			for (int i = 0; i <= BUCKETS.length; i++) {
+				String le = i < BUCKETS.length ? String.valueOf(BUCKETS[i]) : "+Inf";
+				buckets.add(new JsonObject().put("le", le).put("count", histogram.get(i)));
+			}
+			json.put("histogram", buckets);
+			return json;
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import com.gentics.mesh.musetech.ImporterConfig;
+
+import io.reactivex.Completable;
+import io.reactivex.CompletableSource;
+import io.reactivex.Flowable;
+import io.reactivex.functions.Function;
+
+/**
+ * Scheduler which limits the amount of in-flight requests per asset type. Each {@link Lane} has its own concurrency limit which is taken from the
+ * {@link ImporterConfig}. Items are pulled from the source via backpressure so that only the configured amount of operations is active at a time.
+ */
+public class ImportScheduler {
+
+	public enum Lane {
+		IMAGES, VIDEOS, EXHIBITS, NODES
+	}
+
+	private final ImporterConfig config;
+
+	public ImportScheduler(ImporterConfig config) {
+		this.config = config;
+	}
+
+	/**
+	 * Run the operation for each item. At most the configured amount of operations of the lane will be in-flight at once.
+	 * 
+	 * @param lane
+	 * @param items
+	 * @param operation
+	 * @return
+	 */
+	public <T> Completable schedule(Lane lane, Iterable<T> items, Function<T, ? extends CompletableSource> operation) {
+		return Flowable.fromIterable(items).flatMapCompletable(operation, false, maxConcurrency(lane));
+	}
+
+	/**
+	 * Return the concurrency limit for the given lane.
+	 * 
+	 * @param lane
+	 * @return
+	 */
+	public int maxConcurrency(Lane lane) {
+		switch (lane) {
+		case IMAGES:
+			return Math.max(1, config.getImageConcurrency());
+		case VIDEOS:
+			return Math.max(1, config.getVideoConcurrency());
+		case EXHIBITS:
+			return Math.max(1, config.getExhibitConcurrency());
+		case NODES:
+			return Math.max(1, config.getNodeConcurrency());
+		default:
+			throw new RuntimeException("Unknown lane {" + lane + "}");
+		}
+	}
+}
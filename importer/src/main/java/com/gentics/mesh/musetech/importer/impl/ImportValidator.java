@@ -0,0 +1,138 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.gentics.mesh.musetech.importer.ValidationReport;
+import com.gentics.mesh.musetech.model.exhibit.Exhibit;
+import com.gentics.mesh.musetech.model.exhibit.ExhibitContent;
+import com.gentics.mesh.musetech.model.exhibit.ExhibitList;
+import com.gentics.mesh.musetech.model.image.Image;
+import com.gentics.mesh.musetech.model.image.ImageList;
+import com.gentics.mesh.musetech.model.video.Video;
+import com.gentics.mesh.musetech.model.video.VideoList;
+
+/**
+ * Offline validation of the import data. All references and files are checked before any request is sent to Mesh so that a broken data set does not
+ * leave a half imported project behind.
+ */
+public class ImportValidator {
+
+	private static final String[] DATA_DIRS = { "data/schemas", "data/microschemas", "data/nodes", "data/persons", "data/tours", "data/screens",
+		"data/image", "data/audio", "data/video" };
+
+	private final ExhibitList exhibitList;
+	private final ImageList imageList;
+	private final VideoList videoList;
+
+	public ImportValidator(ExhibitList exhibitList, ImageList imageList, VideoList videoList) {
+		this.exhibitList = exhibitList;
+		this.imageList = imageList;
+		this.videoList = videoList;
+	}
+
+	/**
+	 * Run all checks.
+	 * 
+	 * @return Report which contains the found errors and warnings
+	 */
+	public ValidationReport validate() {
+		long start = System.currentTimeMillis();
+		ValidationReport report = new ValidationReport();
+		validateDirectories(report);
+		validateExhibits(report);
+		imageList.findDanglingReferences(exhibitList).forEach(report::error);
+		validateFiles(report);
+		return report.setDuration(System.currentTimeMillis() - start);
+	}
+
+	private void validateDirectories(ValidationReport report) {
+		for (String dir : DATA_DIRS) {
+			if (!new File(dir).isDirectory()) {
+				report.error("Data directory {" + dir + "} could not be found");
+			}
+		}
+	}
+
+	private void validateExhibits(ValidationReport report) {
+		Set<String> publicNumbers = new HashSet<>();
+		for (Exhibit ex : exhibitList.getExhibits()) {
+			String publicNumber = ex.getPublicNumber();
+			if (publicNumber == null) {
+				report.error("Found exhibit without public number {" + ex.toJson() + "}");
+				continue;
+			}
+			if (!publicNumbers.add(publicNumber)) {
+				report.error("Exhibit {" + publicNumber + "} is listed more than once");
+			}
+			if (ex.getLocation() == null) {
+				report.error("Exhibit {" + publicNumber + "} has no location");
+			}
+			if (ex.getImages() == null) {
+				report.error("Exhibit {" + publicNumber + "} has no image list");
+			}
+			if (ex.getTitleImage() == null) {
+				report.warn("Exhibit {" + publicNumber + "} has no title image");
+			} else if (ex.getImages() != null && !ex.getImages().contains(ex.getTitleImage())) {
+				report.warn("Title image {" + ex.getTitleImage() + "} of exhibit {" + publicNumber + "} is not part of the exhibit images");
+			}
+			if (ex.getContent(Exhibit.DEFAULT_LANGUAGE) == null) {
+				report.error("Exhibit {" + publicNumber + "} has no content for language {" + Exhibit.DEFAULT_LANGUAGE + "}");
+			}
+			ex.getContents().forEach((lang, content) -> validateContent(report, ex, lang, content));
+		}
+	}
+
+	private void validateContent(ValidationReport report, Exhibit ex, String lang, ExhibitContent content) {
+		if (content == null) {
+			report.error("Exhibit {" + ex.getPublicNumber() + "} has no content for language {" + lang + "}");
+			return;
+		}
+		if (content.getName() == null) {
+			report.error("Exhibit {" + ex.getPublicNumber() + "} has no name for language {" + lang + "}");
+		}
+		if (content.getDescription() == null) {
+			report.warn("Exhibit {" + ex.getPublicNumber() + "} has no description for language {" + lang + "}");
+		}
+	}
+
+	/**
+	 * Check the existence and size of all image, video and audio files. The file system checks are run in parallel.
+	 * 
+	 * @param report
+	 */
+	private void validateFiles(ValidationReport report) {
+		List<Runnable> checks = new ArrayList<>();
+		for (Image image : imageList.getImages()) {
+			checks.add(() -> checkFile(report, new File("data/image/" + image.getName()), true));
+		}
+		for (Video video : videoList.getVideos()) {
+			if (Boolean.TRUE.equals(video.getImportFlag())) {
+				checks.add(() -> checkFile(report, new File("data/video/" + video.getName()), true));
+			}
+		}
+		for (Exhibit ex : exhibitList.getExhibits()) {
+			ex.getContents().forEach((lang, content) -> {
+				if (content != null) {
+					checks.add(() -> checkFile(report, ImporterImpl.audioFile(lang, ex.getPublicNumber(), content.getAudioName()), false));
+				}
+			});
+		}
+		checks.parallelStream().forEach(Runnable::run);
+	}
+
+	private void checkFile(ValidationReport report, File file, boolean required) {
+		if (!file.exists()) {
+			if (required) {
+				report.error("File {" + file + "} could not be found");
+			} else {
+				report.warn("Optional file {" + file + "} could not be found");
+			}
+		} else if (file.length() == 0) {
+			report.error("File {" + file + "} is empty");
+		}
+	}
+}
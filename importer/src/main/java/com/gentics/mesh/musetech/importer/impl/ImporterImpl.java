@@ -1,10 +1,8 @@
 package com.gentics.mesh.musetech.importer.impl;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
@@ -12,13 +10,19 @@ import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import com.gentics.mesh.core.rest.micronode.MicronodeResponse;
 import com.gentics.mesh.core.rest.microschema.impl.MicroschemaCreateRequest;
@@ -41,10 +45,11 @@ import com.gentics.mesh.core.rest.node.field.list.impl.NodeFieldListItemImpl;
 import com.gentics.mesh.core.rest.project.ProjectResponse;
 import com.gentics.mesh.core.rest.schema.impl.MicroschemaReferenceImpl;
 import com.gentics.mesh.core.rest.schema.impl.SchemaCreateRequest;
-import com.gentics.mesh.core.rest.user.NodeReference;
 import com.gentics.mesh.importer.helper.ImportUtils;
-import com.gentics.mesh.json.JsonUtil;
 import com.gentics.mesh.musetech.ImporterConfig;
+import com.gentics.mesh.musetech.importer.ValidationReport;
+import com.gentics.mesh.musetech.importer.impl.ImageProcessor.Rendition;
+import com.gentics.mesh.musetech.importer.impl.ImportScheduler.Lane;
 import com.gentics.mesh.musetech.model.exhibit.Exhibit;
 import com.gentics.mesh.musetech.model.exhibit.ExhibitContent;
 import com.gentics.mesh.musetech.model.exhibit.ExhibitList;
@@ -53,10 +58,12 @@ import com.gentics.mesh.musetech.model.image.Image;
 import com.gentics.mesh.musetech.model.image.ImageList;
 import com.gentics.mesh.musetech.model.video.Video;
 import com.gentics.mesh.musetech.model.video.VideoList;
+import com.gentics.mesh.parameter.client.DeleteParametersImpl;
 import com.gentics.mesh.parameter.client.NodeParametersImpl;
 import com.gentics.mesh.rest.client.MeshRestClient;
 
 import io.reactivex.Completable;
+import io.reactivex.Flowable;
 import io.reactivex.Maybe;
 import io.reactivex.Observable;
 import io.reactivex.Single;
@@ -80,6 +87,10 @@ public class ImporterImpl extends AbstractImporter {
 	private final List<NodeResponse> persons;
 	private final List<NodeResponse> tours;
 	private final List<NodeResponse> screens;
+	private final ImportManifest manifest;
+	private final ImageProcessor imageProcessor;
+	private final Map<String, String> nodeFingerprints = new HashMap<>();
+	private ImportJournal journal = ImportJournal.disabled();
 
 	public ImporterImpl(ImporterConfig config) throws IOException {
 		super(config);
@@ -93,96 +104,103 @@ public class ImporterImpl extends AbstractImporter {
 		this.persons = ImportUtils.loadNodes("data/persons");
 		this.tours = ImportUtils.loadNodes("data/tours");
 		this.screens = ImportUtils.loadNodes("data/screens");
+		this.manifest = ImportManifest.load(new File(config.getManifestPath()));
+		this.imageProcessor = new ImageProcessor(new File("data/image"), config.getImageMaxSize(), config.getImageQuality(),
+			config.getImageProcessingConcurrency());
+
+		// Fingerprint the nodes before any mapper alters them
+		fingerprintNodes("node", nodes);
+		fingerprintNodes("person", persons);
+		// The tour dates are generated relative to the import day. Tours thus change daily even if their data does not.
+		fingerprintNodes("tour", tours, LocalDate.now().toString());
+		fingerprintNodes("screen", screens);
 	}
 
-	private Completable importContents(NodeResponse folder) throws FileNotFoundException, IOException {
-		Set<Completable> operations = new HashSet<>();
-		for (Exhibit ex : exhibitList.getExhibits()) {
-			operations.add(createExhibit(folder.getUuid(), ex, ex.getEnglish()).flatMapCompletable(tupl -> {
-				return translateExhibit(tupl.getA(), tupl.getB(), ex, ex.getGerman());
-			}));
-		}
-		return Completable.merge(operations);
+	private Completable importContents(NodeResponse folder) {
+		return scheduler.schedule(Lane.EXHIBITS, exhibitList.getExhibits(), ex -> {
+			String publicNumber = ex.getPublicNumber();
+			return journaled(ImportManifest.key("exhibit", publicNumber), fingerprint(ex), () -> {
+				// Remove the exhibit which was only partially imported by a previous run
+				String partialUuid = journal.getUuid(ImportManifest.key("exhibit-node", publicNumber));
+				if (partialUuid == null) {
+					return importExhibit(folder.getUuid(), null, ex);
+				}
+				return deleteNode(partialUuid).andThen(importExhibit(folder.getUuid(), partialUuid, ex));
+			});
+		});
 	}
 
-	private Completable translateExhibit(NodeResponse node, String audioFolderUuid, Exhibit ex, ExhibitContent content) {
-		return Single.just(new NodeUpdateRequest()).flatMapCompletable(request -> {
-			request.setLanguage("de");
-
-			List<Completable> contents = new ArrayList<>();
-			String audioName = content.getAudioName();
-			contents.add(
-				createAudio(audioFolderUuid, "de", ex.getPublicNumber(), audioName).doOnSuccess(audioResp -> {
-					log.info("Add audio reference {" + audioResp.getUuid() + "}");
-					request.getFields().put("audio", new NodeFieldImpl().setUuid(audioResp.getUuid()));
-				}).ignoreElement());
+	/**
+	 * Create the exhibit node with all languages and related contents and record it in the manifest. The exhibit is imported as a dependency graph:
+	 * The image and audio folders are created as soon as the exhibit node exists. The images and the audio of every language are uploaded
+	 * concurrently and each language variant gets written once its own audio and the shared image references are available.
+	 * 
+	 * @param folderUuid
+	 * @param uuid
+	 *            Uuid to be used for the exhibit node or null to let Mesh generate one
+	 * @param ex
+	 * @return Uuid of the exhibit node
+	 */
+	private Single<String> importExhibit(String folderUuid, String uuid, Exhibit ex) {
+		Single<NodeResponse> node = createExhibit(folderUuid, uuid, ex).cache();
+		Single<NodeResponse> imageFolder = node.flatMap(created -> createFolder(created.getUuid(), "image", "Image")).cache();
+		Single<NodeResponse> audioFolder = node.flatMap(created -> createFolder(created.getUuid(), "audio", "Audio")).cache();
+		Single<List<Tuple<Image, NodeResponse>>> images = imageFolder.flatMap(folder -> createExhibitImages(ex, folder)).cache();
+
+		List<Completable> languages = new ArrayList<>();
+		ex.getContents().forEach((lang, content) -> {
+			Single<Optional<NodeResponse>> audio = audioFolder.flatMapMaybe(folder -> {
+				return createAudio("importContents", folder.getUuid(), lang, ex.getPublicNumber(), content.getAudioName());
+			}).map(Optional::of).toSingle(Optional.empty());
+			Completable variant = Single.zip(node, images, audio, (created, imageNodes, audioNode) -> {
+				// Only the language in which the node was created already has a version
+				String version = lang.equals(created.getLanguage()) ? created.getVersion() : null;
+				return updateExhibit(created.getUuid(), lang, version, exhibitRequest(ex, lang, content, imageNodes, audioNode));
+			}).flatMap(updated -> updated).ignoreElement();
+			languages.add(metrics.time("translateExhibit", variant));
+		});
 
-			String description = content.getDescription();
-			String name = content.getName();
-			// String id = ex.getId();
-			String publicNumber = ex.getPublicNumber();
-			request.getFields().put("name", new StringFieldImpl().setString(name));
-			request.getFields().put("description", new StringFieldImpl().setString(description));
-			setCommonExhibitInfo(request.getFields(), ex);
-			request.getFields().put("slug", new StringFieldImpl().setString(publicNumber + ":de"));
-
-			// Copy from first language
-			request.getFields().put("images", node.getFields().getNodeFieldList("images"));
-			request.getFields().put("title_image", node.getFields().getNodeField("title_image"));
-
-			return Completable.merge(contents).andThen(Completable.defer(() -> {
-				return client.updateNode(projectName, node.getUuid(), request)
-					.toCompletable();
-			})
-				.doOnComplete(() -> {
-					log.info("Updated exhibit {" + node.getUuid() + "/en}");
-				}).doOnError(err -> {
-					log.info("Error while translating exhibit {" + node.getUuid() + "/en}");
-				}));
+		return metrics.time("importContents", Completable.merge(languages).andThen(node)).map(NodeResponse::getUuid).doOnSuccess(exhibitUuid -> {
+			manifest.put(ImportManifest.key("exhibit", ex.getPublicNumber()), exhibitUuid, fingerprint(ex));
 		});
 	}
 
-	private Single<Tuple<NodeResponse, String>> createExhibit(String folderUuid, Exhibit exhibit, ExhibitContent content) {
+	/**
+	 * Create the exhibit node in the default language. The related contents are added by the update of each language variant.
+	 * 
+	 * @param folderUuid
+	 * @param uuid
+	 *            Uuid to be used for the exhibit node or null to let Mesh generate one
+	 * @param exhibit
+	 * @return
+	 */
+	private Single<NodeResponse> createExhibit(String folderUuid, String uuid, Exhibit exhibit) {
+		String publicNumber = exhibit.getPublicNumber();
+		ExhibitContent content = exhibit.getContent(Exhibit.DEFAULT_LANGUAGE);
+		if (content == null) {
+			return Single.error(new RuntimeException("Exhibit {" + publicNumber + "} has no content for language {" + Exhibit.DEFAULT_LANGUAGE + "}"));
+		}
 		NodeCreateRequest request = new NodeCreateRequest();
-		request.setLanguage("en");
+		request.setLanguage(Exhibit.DEFAULT_LANGUAGE);
 		request.setSchemaName("Exhibit");
 		request.setParentNodeUuid(folderUuid);
-
-		String description = content.getDescription();
-		String name = content.getName();
-
-		// String id = exhibit.getId();
-		String publicNumber = exhibit.getPublicNumber();
-		request.getFields().put("name", new StringFieldImpl().setString(name));
-		request.getFields().put("description", new StringFieldImpl().setString(description));
-		request.getFields().put("slug", new StringFieldImpl().setString(publicNumber + ":en"));
+		request.getFields().put("name", new StringFieldImpl().setString(content.getName()));
+		request.getFields().put("description", new StringFieldImpl().setString(content.getDescription()));
+		request.getFields().put("slug", new StringFieldImpl().setString(publicNumber + ":" + Exhibit.DEFAULT_LANGUAGE));
 
 		setCommonExhibitInfo(request.getFields(), exhibit);
 
-		return client.createNode(projectName, request, new NodeParametersImpl().setLanguages("en"))
-			.toSingle()
+		NodeParametersImpl params = new NodeParametersImpl().setLanguages(Exhibit.DEFAULT_LANGUAGE);
+		Single<NodeResponse> created = uuid == null ? client.createNode(projectName, request, params).toSingle()
+			: client.createNode(uuid, projectName, request, params).toSingle();
+		return created
 			.doOnSuccess(node -> {
+				journal.record(ImportManifest.key("exhibit-node", publicNumber), node.getUuid());
 				log.info("Created exhibit {" + publicNumber + "} with uuid" + node.getUuid());
 			})
 			.doOnError(err -> {
 				log.error("Error while creating exhibit {" + publicNumber + "}", err);
-			})
-			.flatMap(node -> {
-
-				Single<NodeResponse> imagesFolder = createFolder(node.getUuid(), "image", "Image");
-				Single<NodeResponse> audiosFolder = createFolder(node.getUuid(), "audio", "Audio");
-
-				Single<Tuple<NodeResponse, String>> tupS = Single.zip(imagesFolder, audiosFolder, (imgFolder, auFolder) -> {
-					Single<Tuple<NodeResponse, String>> td = storeAndUpdateRelatedContents(node.getUuid(), node.getLanguage(), node.getVersion(),
-						exhibit, exhibit.getEnglish(), imgFolder, auFolder)
-							.flatMap(nodeR -> {
-								return Single.just(Tuple.tuple(nodeR, auFolder.getUuid()));
-							});
-					return td;
-				}).flatMap(r -> r);
-				return tupS;
 			});
-
 	}
 
 	private void setCommonExhibitInfo(FieldMap fields, Exhibit exhibit) {
@@ -202,71 +220,78 @@ public class ImporterImpl extends AbstractImporter {
 
 	}
 
-	private Single<NodeResponse> storeAndUpdateRelatedContents(String uuid, String lang, String version, Exhibit ex, ExhibitContent content,
-		NodeResponse imgFolder,
-		NodeResponse auFolder) {
-		return Single.just(new NodeUpdateRequest()).flatMap(request -> {
-
-			List<Completable> contents = new ArrayList<>();
-
-			String audio = content.getAudioName();
-			contents.add(
-				createAudio(auFolder.getUuid(), "en", ex.getPublicNumber(), audio).doOnSuccess(audioResp -> {
-					log.info("Add audio reference {" + uuid + "}");
-					request.getFields().put("audio", new NodeFieldImpl().setUuid(audioResp.getUuid()));
-				}).ignoreElement());
-
-			// Iterate over all images and create them within the exhibit image folder
-			List<String> exhibitImageList = ex.getImages();
-			if (exhibitImageList == null) {
-				return Single.error(new RuntimeException("The exhibit {" + ex.getPublicNumber() + "} has no image list"));
+	/**
+	 * Create the images of the exhibit within the exhibit image folder. The images are uploaded concurrently but returned in the order of the exhibit
+	 * image list.
+	 * 
+	 * @param ex
+	 * @param imgFolder
+	 * @return
+	 */
+	private Single<List<Tuple<Image, NodeResponse>>> createExhibitImages(Exhibit ex, NodeResponse imgFolder) {
+		List<String> exhibitImageList = ex.getImages();
+		if (exhibitImageList == null) {
+			return Single.error(new RuntimeException("The exhibit {" + ex.getPublicNumber() + "} has no image list"));
+		}
+		List<Image> images = new ArrayList<>();
+		for (String imageName : exhibitImageList) {
+			Image image = findImage(ex, imageName);
+			if (image == null) {
+				return Single.error(new RuntimeException("Could not find image with name {" + imageName + "}"));
 			}
-			for (String imageName : exhibitImageList) {
-				Image image = findImage(ex, imageName);
-				if (image == null) {
-					return Single.error(new RuntimeException("Could not find image with name {" + imageName + "}"));
-				}
-				contents.add(
-					createImage(imgFolder.getUuid(), image, false)
-						.doOnSuccess(imageResp -> {
-							// Now add node references for images to the exhibit fields
-
-							log.info("Adding images reference {" + uuid + "}");
-							NodeFieldListItemImpl item = new NodeFieldListItemImpl().setUuid(imageResp.getUuid());
-							NodeFieldList list = request.getFields().getNodeFieldList("images");
-							if (list == null) {
-								list = new NodeFieldListImpl();
-								request.getFields().put("images", list);
-							}
-							list.add(item);
-
-							String detailImage = ex.getTitleImage();
-							if (detailImage != null) {
-								if (detailImage.equals(image.getName())) {
-									log.info("Adding detail image reference {" + detailImage + "}");
-									request.getFields().put("title_image", new NodeFieldImpl().setUuid(imageResp.getUuid()));
-								}
-							} else {
-								log.error("Detail image {" + detailImage + "} could not be found for exhibit {" + ex.getPublicNumber() + "}");
-							}
-
-						}).ignoreElement());
+			images.add(image);
+		}
+		return Observable.fromIterable(images).concatMapEager(image -> {
+			return createImage("importContents", imgFolder.getUuid(), image, false).map(node -> Tuple.tuple(image, node)).toObservable();
+		}).toList();
+	}
 
+	/**
+	 * Build the update request for a language variant of the exhibit which references the exhibit images and the audio of the language.
+	 * 
+	 * @param ex
+	 * @param lang
+	 * @param content
+	 * @param images
+	 * @param audio
+	 * @return
+	 */
+	private NodeUpdateRequest exhibitRequest(Exhibit ex, String lang, ExhibitContent content, List<Tuple<Image, NodeResponse>> images,
+		Optional<NodeResponse> audio) {
+		NodeUpdateRequest request = new NodeUpdateRequest();
+		FieldMap fields = request.getFields();
+		String publicNumber = ex.getPublicNumber();
+		fields.put("name", new StringFieldImpl().setString(content.getName()));
+		fields.put("description", new StringFieldImpl().setString(content.getDescription()));
+		fields.put("slug", new StringFieldImpl().setString(publicNumber + ":" + lang));
+		setCommonExhibitInfo(fields, ex);
+
+		NodeFieldList list = new NodeFieldListImpl();
+		for (Tuple<Image, NodeResponse> image : images) {
+			String imageUuid = image.getB().getUuid();
+			list.add(new NodeFieldListItemImpl().setUuid(imageUuid));
+			if (image.getA().getName().equals(ex.getTitleImage())) {
+				fields.put("title_image", new NodeFieldImpl().setUuid(imageUuid));
 			}
-			return Completable.merge(contents).andThen(Single.just(request));
-		}).flatMap(request -> {
-			return updateExhibit(uuid, lang, version, request);
+		}
+		fields.put("images", list);
+		if (ex.getTitleImage() == null) {
+			log.error("No detail image has been set for exhibit {" + publicNumber + "}");
+		}
+
+		audio.ifPresent(audioNode -> {
+			log.info("Add audio reference {" + audioNode.getUuid() + "} for language {" + lang + "}");
+			fields.put("audio", new NodeFieldImpl().setUuid(audioNode.getUuid()));
 		});
+		return request;
 	}
 
 	private Image findImage(Exhibit ex, String imageName) {
-		Optional<Image> op = imageList.getImages().stream().filter(i -> i.getName().equals(imageName)).findFirst();
-		if (op.isPresent()) {
-			return op.get();
-		} else {
+		Image image = imageList.findByName(imageName);
+		if (image == null) {
 			log.error("Could not find image for exhibit {" + ex.getPublicNumber() + "} {" + imageName + "}");
 		}
-		return null;
+		return image;
 	}
 
 	private Single<NodeResponse> updateExhibit(String uuid, String lang, String version, NodeUpdateRequest request) {
@@ -282,7 +307,7 @@ public class ImporterImpl extends AbstractImporter {
 			});
 	}
 
-	private Single<NodeResponse> createImage(String parentNodeUuid, Image image, boolean useUuid) {
+	private Single<NodeResponse> createImage(String phase, String parentNodeUuid, Image image, boolean useUuid) {
 		String name = image.getName();
 		String attr = image.getAttribution();
 		String license = image.getLicense();
@@ -292,11 +317,13 @@ public class ImporterImpl extends AbstractImporter {
 			return Single.error(new FileNotFoundException("Image " + name + " could not be found." + image.toJson()));
 		}
 		String filename = imageFile.getName();
+		// The rendition may use a different extension than the original
+		Rendition rendition = imageProcessor.rendition(imageFile);
 		NodeCreateRequest request = new NodeCreateRequest();
 		request.setLanguage("en");
 		request.setParentNodeUuid(parentNodeUuid);
 		request.setSchemaName("Image");
-		request.getFields().put("filename", new StringFieldImpl().setString(filename));
+		request.getFields().put("filename", new StringFieldImpl().setString(rendition.getFile().getName()));
 		request.getFields().put("license", new StringFieldImpl().setString(license));
 		request.getFields().put("source", new StringFieldImpl().setString(source));
 		request.getFields().put("attribution", new StringFieldImpl().setString(attr));
@@ -311,21 +338,15 @@ public class ImporterImpl extends AbstractImporter {
 			if (useUuid) {
 				fileIdMap.put(filename, node.getUuid());
 			}
-			InputStream ins = new FileInputStream(imageFile);
-			long size = imageFile.length();
-			String version = node.getVersion();
 			// TODO: Somehow some nodes get version 0.2 after creation - wtf?
-			// version = "draft";
-			Single<NodeResponse> upload = client
-				.updateNodeBinaryField(projectName, node.getUuid(), node.getLanguage(), version, "binary", ins, size, filename,
-					"image/jpeg")
-				.toSingle().doOnError(err -> {
+			Single<NodeResponse> upload = uploader.upload(phase, node, "binary", rendition.getFile(), rendition.getMimeType())
+				.doOnError(err -> {
 					log.error("Got error on upload for node {" + node.getUuid() + "} on version {" + node.getVersion() + "}");
 				});
 			return upload.flatMap(updatedNode -> {
 				// Check whether the image contains focal point info
-				if (image.getFpx() != null && image.getFpy() != null) {
-					BinaryField binField = updatedNode.getFields().getBinaryField("binary");
+				BinaryField binField = updatedNode.getFields().getBinaryField("binary");
+				if (image.getFpx() != null && image.getFpy() != null && !hasFocalPoint(binField, image)) {
 					binField.setFocalPoint(image.getFpx(), image.getFpy());
 					NodeUpdateRequest nodeUpdateRequest = new NodeUpdateRequest();
 					String version2 = updatedNode.getVersion();
@@ -345,6 +366,20 @@ public class ImporterImpl extends AbstractImporter {
 		});
 	}
 
+	/**
+	 * Check whether the binary field already contains the focal point of the image. This is the case when the upload of an unchanged binary was skipped.
+	 * 
+	 * @param binField
+	 * @param image
+	 * @return
+	 */
+	private boolean hasFocalPoint(BinaryField binField, Image image) {
+		if (binField == null || binField.getFocalPoint() == null) {
+			return false;
+		}
+		return image.getFpx().equals(binField.getFocalPoint().getX()) && image.getFpy().equals(binField.getFocalPoint().getY());
+	}
+
 	private Single<NodeResponse> createVideo(String uuid, Video video) {
 		String filename = video.getName();
 		String description = video.getDescription();
@@ -359,12 +394,8 @@ public class ImporterImpl extends AbstractImporter {
 		return client.createNode(video.getUuid(), projectName, request).toSingle().flatMap(node -> {
 			fileIdMap.put(filename, node.getUuid());
 			File file = new File("data/video/" + filename);
-			InputStream ins = new FileInputStream(file);
-			long size = file.length();
 			String mimeType = MimeMapping.getMimeTypeForFilename(filename);
-
-			return client.updateNodeBinaryField(projectName, node.getUuid(), node.getLanguage(), node.getVersion(), "binary", ins, size, filename,
-				mimeType).toSingle();
+			return uploader.upload("importVideos", node, "binary", file, mimeType);
 		}).doOnError(err -> {
 			log.error("Error while creating video {" + filename + "} for node {" + uuid + "}");
 		}).doOnSuccess(node -> {
@@ -372,30 +403,18 @@ public class ImporterImpl extends AbstractImporter {
 		});
 	}
 
-	private Maybe<NodeResponse> createAudio(String uuid, String lang, String publicNumber, String audioName) {
-		String audioLang = lang.equals("en") ? "gb" : lang;
-		// The audioName field can be used to override the default version.
-		if (audioName == null) {
-			audioName = publicNumber + "_" + audioLang + ".mp3";
-		}
-		File audioFile = new File("data/audio/" + audioName);
-
+	private Maybe<NodeResponse> createAudio(String phase, String uuid, String lang, String publicNumber, String audioName) {
+		File audioFile = audioFile(lang, publicNumber, audioName);
 		if (audioFile.exists()) {
 			NodeCreateRequest request = new NodeCreateRequest();
 			request.setLanguage(lang);
 			request.setParentNodeUuid(uuid);
 			request.setSchemaName("Audio");
-			request.getFields().put("filename", new StringFieldImpl().setString(audioName));
-			String mimeType = MimeMapping.getMimeTypeForFilename(audioName);
+			request.getFields().put("filename", new StringFieldImpl().setString(audioFile.getName()));
+			String mimeType = MimeMapping.getMimeTypeForFilename(audioFile.getName());
 
 			return client.createNode(projectName, request, new NodeParametersImpl().setLanguages(lang)).toSingle().flatMap(node -> {
-				InputStream ins = new FileInputStream(audioFile);
-				long size = audioFile.length();
-				return client
-					.updateNodeBinaryField(projectName, node.getUuid(), node.getLanguage(), node.getVersion(), "binary", ins, size,
-						audioFile.getName(),
-						mimeType, new NodeParametersImpl().setLanguages(lang))
-					.toSingle();
+				return uploader.upload(phase, node, "binary", audioFile, mimeType, new NodeParametersImpl().setLanguages(lang));
 			}).doOnError(err -> {
 				log.error("Error while creating audio {" + audioFile + "} for node {" + uuid + "}");
 			}).doOnSuccess(node -> {
@@ -407,17 +426,29 @@ public class ImporterImpl extends AbstractImporter {
 
 	}
 
+	static File audioFile(String lang, String publicNumber, String audioName) {
+		String audioLang = lang.equals("en") ? "gb" : lang;
+		// The audioName field can be used to override the default version.
+		if (audioName == null) {
+			audioName = publicNumber + "_" + audioLang + ".mp3";
+		} else if (audioName.endsWith(".wav")) {
+			// Only the transcoded audio gets uploaded
+			return AudioTranscoder.target(new File("data/audio/" + audioName));
+		}
+		return new File("data/audio/" + audioName);
+	}
+
 	@Override
 	public Completable createFolders(ProjectResponse project) {
 		String uuid = project.getRootNode().getUuid();
 		Set<Completable> operations = new HashSet<>();
-		Completable importImages = createFolder(uuid, "image", "Images").flatMapCompletable(this::importImages);
-		Completable importPersons = createFolder(uuid, "persons", "Persons").flatMapCompletable(this::importPersons);
-		Completable importTours = createFolder(uuid, "tours", "Tours").flatMapCompletable(this::importTours);
+		Completable importImages = createRootFolder(uuid, "image", "Images").flatMapCompletable(this::importImages);
+		Completable importPersons = createRootFolder(uuid, "persons", "Persons").flatMapCompletable(this::importPersons);
+		Completable importTours = createRootFolder(uuid, "tours", "Tours").flatMapCompletable(this::importTours);
 
-		operations.add(createFolder(uuid, "video", "Videos").flatMapCompletable(this::importVideos));
-		operations.add(createFolder(uuid, "exhibits", "Exhibits").flatMapCompletable(this::importContents)
-			.andThen(createFolder(uuid, "screens", "Screens").flatMapCompletable(this::importScreens)));
+		operations.add(createRootFolder(uuid, "video", "Videos").flatMapCompletable(this::importVideos));
+		operations.add(createRootFolder(uuid, "exhibits", "Exhibits").flatMapCompletable(this::importContents)
+			.andThen(createRootFolder(uuid, "screens", "Screens").flatMapCompletable(this::importScreens)));
 		return importImages.andThen(importPersons).andThen(importTours).andThen(Completable.merge(operations));
 	}
 
@@ -428,23 +459,38 @@ public class ImporterImpl extends AbstractImporter {
 	 * @return
 	 */
 	private Completable importImages(NodeResponse folder) {
-		Set<Completable> operations = new HashSet<>();
-		for (Image image : imageList.getImages()) {
-			operations.add(createImage(folder.getUuid(), image, true).ignoreElement());
-		}
-		return Completable.merge(operations);
+		return scheduler.schedule(Lane.IMAGES, imageList.getImages(), image -> {
+			return journaled(ImportManifest.key("image", image.getName()), fingerprint(image), () -> importImage(folder.getUuid(), image));
+		});
+	}
+
+	private Single<String> importImage(String folderUuid, Image image) {
+		return metrics.time("importImages", createImage("importImages", folderUuid, image, true)).map(node -> {
+			manifest.put(ImportManifest.key("image", image.getName()), node.getUuid(), fingerprint(image));
+			return node.getUuid();
+		});
 	}
 
 	private Completable importPersons(NodeResponse folder) {
-		return importNodes(client, folder.getUuid(), persons, projectName);
+		return phase("persons", importNodes(client, folder.getUuid(), persons, projectName, scheduler.maxConcurrency(Lane.NODES)))
+			.doOnComplete(() -> recordNodes("person", persons));
 	}
 
 	private Completable importTours(NodeResponse folder) {
+		return phase("tours", importNodes(client, folder.getUuid(), tours, projectName, scheduler.maxConcurrency(Lane.NODES), tourDatesMapper()))
+			.doOnComplete(() -> recordNodes("tour", tours));
+	}
 
+	/**
+	 * Mapper which replaces the tour dates with dates relative to the current day.
+	 * 
+	 * @return
+	 */
+	private NodeMapper tourDatesMapper() {
 		AtomicInteger offset = new AtomicInteger();
 		Map<String, Integer> offsetMap = new HashMap<>();
 
-		return importNodes(client, folder.getUuid(), tours, projectName, node -> {
+		return node -> {
 			MicronodeFieldList list = node.getFields().getMicronodeFieldList("dates");
 
 			int currentOffset = offsetMap.computeIfAbsent(node.getUuid(), uuid -> {
@@ -462,7 +508,7 @@ public class ImporterImpl extends AbstractImporter {
 			node.getFields().put("dates", list);
 
 			return node;
-		});
+		};
 	}
 
 	private MicronodeField createTourDate(LocalDateTime date, int freeSeats) {
@@ -482,7 +528,8 @@ public class ImporterImpl extends AbstractImporter {
 	}
 
 	private Completable importScreens(NodeResponse folder) {
-		return importNodes(client, folder.getUuid(), screens, projectName);
+		return phase("screens", importNodes(client, folder.getUuid(), screens, projectName, scheduler.maxConcurrency(Lane.NODES)))
+			.doOnComplete(() -> recordNodes("screen", screens));
 	}
 
 	/**
@@ -492,13 +539,41 @@ public class ImporterImpl extends AbstractImporter {
 	 * @return
 	 */
 	private Completable importVideos(NodeResponse folder) {
-		Set<Completable> operations = new HashSet<>();
-		for (Video video : videoList.getVideos()) {
-			if (video.getImportFlag()) {
-				operations.add(createVideo(folder.getUuid(), video).ignoreElement());
-			}
+		List<Video> videos = videoList.getVideos().stream()
+			.filter(Video::getImportFlag)
+			.collect(Collectors.toList());
+		return scheduler.schedule(Lane.VIDEOS, videos, video -> {
+			return journaled(ImportManifest.key("video", video.getName()), fingerprint(video), () -> importVideo(folder.getUuid(), video));
+		});
+	}
+
+	private Single<String> importVideo(String folderUuid, Video video) {
+		return metrics.time("importVideos", createVideo(folderUuid, video)).map(node -> {
+			manifest.put(ImportManifest.key("video", video.getName()), node.getUuid(), fingerprint(video));
+			return node.getUuid();
+		});
+	}
+
+	/**
+	 * Create a folder below the project root node and record it in the manifest. The folder of a previous run will be reused when resuming an import.
+	 * 
+	 * @param parentUuid
+	 * @param slug
+	 * @param name
+	 * @return
+	 */
+	private Single<NodeResponse> createRootFolder(String parentUuid, String slug, String name) {
+		String key = ImportManifest.key("folder", slug);
+		String journaledUuid = journal.getUuid(key);
+		Single<NodeResponse> folder;
+		if (journaledUuid != null) {
+			folder = client.findNodeByUuid(projectName, journaledUuid).toSingle();
+		} else {
+			folder = createFolder(parentUuid, slug, name).doOnSuccess(created -> journal.record(key, created.getUuid()));
 		}
-		return Completable.merge(operations);
+		return folder.doOnSuccess(created -> {
+			manifest.put(key, created.getUuid(), null);
+		});
 	}
 
 	private Single<NodeResponse> createFolder(String parentUuid, String slug, String name) {
@@ -538,45 +613,459 @@ public class ImporterImpl extends AbstractImporter {
 		return ImportUtils.importNodes(client, nodes, project);
 	}
 
+	/**
+	 * Create the given nodes below the parent node. The languages of a node are created one after another while different nodes are created in
+	 * parallel. At most maxConcurrency nodes will be in-flight at once.
+	 * 
+	 * @param client
+	 * @param parentNodeUuid
+	 * @param nodes
+	 * @param projectName
+	 * @param maxConcurrency
+	 * @param mappers
+	 * @return
+	 */
 	public static Completable importNodes(MeshRestClient client, String parentNodeUuid, List<NodeResponse> nodes, String projectName,
-		NodeMapper... mappers) {
-		return Observable.fromIterable(nodes)
-			.map(node -> {
-				NodeReference nodeRef = new NodeReference();
-				nodeRef.setUuid(parentNodeUuid);
-				node.setParentNode(nodeRef);
-				return node;
-			})
-			.map(node -> {
-				for (NodeMapper mapper : mappers) {
-					node = mapper.apply(node);
-				}
-				return node;
-			})
-			.flatMapCompletable(node -> {
-				String uuid = node.getUuid();
-				NodeCreateRequest request = JsonUtil.readValue(node.toJson(), NodeCreateRequest.class);
-				return client.createNode(uuid, projectName, request).toCompletable();
-			});
+		int maxConcurrency, NodeMapper... mappers) {
+		Map<String, List<NodeResponse>> languagesByUuid = nodes.stream()
+			.collect(Collectors.groupingBy(NodeResponse::getUuid, LinkedHashMap::new, Collectors.toList()));
+		return Flowable.fromIterable(languagesByUuid.values()).flatMapCompletable(languages -> {
+			return Flowable.fromIterable(languages)
+				.map(node -> {
+					for (NodeMapper mapper : mappers) {
+						node = mapper.apply(node);
+					}
+					return node;
+				})
+				.concatMapCompletable(node -> {
+					NodeCreateRequest request = toCreateRequest(node, parentNodeUuid);
+					return client.createNode(node.getUuid(), projectName, request).toCompletable();
+				});
+		}, false, maxConcurrency);
+	}
+
+	/**
+	 * Convert the loaded node into a create request. The field map of the node is reused as-is.
+	 * 
+	 * @param node
+	 * @param parentNodeUuid
+	 * @return
+	 */
+	private static NodeCreateRequest toCreateRequest(NodeResponse node, String parentNodeUuid) {
+		NodeCreateRequest request = new NodeCreateRequest();
+		request.setParentNodeUuid(parentNodeUuid);
+		request.setLanguage(node.getLanguage());
+		request.setSchemaName(node.getSchema().getName());
+		request.setFields(node.getFields());
+		return request;
+	}
+
+	@Override
+	public ValidationReport validate() {
+		return new ImportValidator(exhibitList, imageList, videoList).validate();
 	}
 
 	public void run() {
-		purge();
+		try {
+			metrics.time("transcodeAudio", transcodeAudio()).blockingAwait();
+		} catch (RuntimeException e) {
+			log.error("Transcoding of the audio files failed. Aborting import.", e);
+			return;
+		}
+		ValidationReport report = validate();
+		if (report.hasErrors()) {
+			log.error(report.toString());
+			System.out.println("Validation of the import data failed. Aborting import.");
+			return;
+		}
+		log.info(report.toString());
+		metrics.time("processImages", processImages()).blockingAwait();
+		try {
+			journal = ImportJournal.open(new File(config.getJournalPath()));
+		} catch (IOException e) {
+			throw new RuntimeException("Could not read import journal {" + config.getJournalPath() + "}", e);
+		}
+		if (config.isDeltaImport() && canRunDelta()) {
+			journal = ImportJournal.disabled();
+			runDelta();
+			return;
+		}
+		if (journal.isResume()) {
+			log.info("Found journal of an unfinished import. Resuming it.");
+		} else {
+			// Drop the manifest before purging. A crashed import would otherwise leave a manifest which references the purged nodes.
+			manifest.clear();
+			try {
+				manifest.save();
+			} catch (IOException e) {
+				throw new RuntimeException("Could not reset import manifest {" + config.getManifestPath() + "}", e);
+			}
+			purge();
+		}
+		manifest.clear();
 		long start = System.currentTimeMillis();
 		loadOrCreateProject()
 			.flatMapCompletable(project -> {
-				return createMicroschemas().andThen(createSchemas())
-					.andThen(createFolders(project))
-					.andThen(importNodes(project))
-					.andThen(publishNodes(project))
-					.andThen(grantPermissions(project));
+				return phase("microschemas", metrics.time("createMicroschemas", createMicroschemas()))
+					.andThen(phase("schemas", metrics.time("createSchemas", createSchemas())))
+					.andThen(metrics.time("createFolders", createFolders(project)))
+					.andThen(phase("nodes", metrics.time("importNodes", importNodes(project))))
+					.andThen(phase("publish", metrics.time("publishNodes", publishNodes(project))))
+					.andThen(phase("permissions", metrics.time("grantPermissions", grantPermissions(project))));
 			})
 			.subscribe(() -> {
 				long dur = System.currentTimeMillis() - start;
+				manifest.put("schemas", null, schemaFingerprint());
+				recordNodes("node", nodes);
+				saveManifest();
+				journal.delete();
+				writeMetrics();
 				System.out.println("Import done. Took: " + dur + "[ms]");
 			}, err -> {
 				err.printStackTrace();
+				writeMetrics();
+				System.out.println("Import failed. Run the import again to resume it.");
+			});
+	}
+
+	/**
+	 * Encode the generated WAV files to MP3. This needs to happen before the validation and the fingerprinting since both inspect the MP3 files.
+	 * 
+	 * @return
+	 */
+	private Completable transcodeAudio() {
+		return Completable.defer(() -> {
+			return new AudioTranscoder(new File("data/audio"), config.getAudioBitrate(), config.getAudioConcurrency()).transcodeAll();
+		});
+	}
+
+	/**
+	 * Create the renditions of all images which will be uploaded instead of the originals.
+	 * 
+	 * @return
+	 */
+	private Completable processImages() {
+		List<File> files = imageList.getImages().stream()
+			.map(image -> new File("data/image/" + image.getName()))
+			.filter(File::exists)
+			.collect(Collectors.toList());
+		return imageProcessor.process(files);
+	}
+
+	/**
+	 * Run the phase unless the journal states that it has already been completed.
+	 * 
+	 * @param name
+	 * @param operation
+	 * @return
+	 */
+	private Completable phase(String name, Completable operation) {
+		return Completable.defer(() -> {
+			if (journal.isPhaseDone(name)) {
+				log.info("Phase {" + name + "} has already been completed. Skipping it.");
+				return Completable.complete();
+			}
+			return operation.doOnComplete(() -> journal.phaseDone(name));
+		});
+	}
+
+	/**
+	 * Run the import operation unless the journal already contains the node for the key. Journaled nodes are only recorded in the manifest.
+	 * 
+	 * @param key
+	 * @param fingerprint
+	 * @param operation
+	 *            Operation which imports the element and returns the uuid of the created node
+	 * @return
+	 */
+	private Completable journaled(String key, String fingerprint, Callable<Single<String>> operation) {
+		String uuid = journal.getUuid(key);
+		if (uuid != null) {
+			manifest.put(key, uuid, fingerprint);
+			return Completable.complete();
+		}
+		return Single.defer(operation).doOnSuccess(createdUuid -> journal.record(key, createdUuid)).ignoreElement();
+	}
+
+	/**
+	 * Only import the elements whose fingerprint differs from the manifest of the last import. Elements which are no longer part of the data will be
+	 * deleted. The project is not purged and thus stays available during the import.
+	 */
+	private void runDelta() {
+		long start = System.currentTimeMillis();
+		loadOrCreateProject()
+			.flatMapCompletable(project -> {
+				Completable syncImages = syncImages(manifest.getUuid("folder:image"));
+				Completable syncPersons = syncNodes("person", persons, manifest.getUuid("folder:persons"));
+				Completable syncTours = syncNodes("tour", tours, manifest.getUuid("folder:tours"), tourDatesMapper());
+				Completable syncVideos = syncVideos(manifest.getUuid("folder:video"));
+				Completable syncExhibits = syncExhibits(manifest.getUuid("folder:exhibits"));
+				Completable syncScreens = syncNodes("screen", screens, manifest.getUuid("folder:screens"));
+				return syncImages.andThen(syncPersons).andThen(syncTours)
+					.andThen(Completable.mergeArray(syncVideos, syncExhibits.andThen(syncScreens)))
+					.andThen(metrics.time("importNodes", syncPages(project)))
+					.andThen(metrics.time("publishNodes", publishNodes(project)));
+			})
+			.subscribe(() -> {
+				long dur = System.currentTimeMillis() - start;
+				saveManifest();
+				writeMetrics();
+				System.out.println("Delta import done. Took: " + dur + "[ms]");
+			}, err -> {
+				// Store the progress so that the next delta run only handles the remaining elements
+				saveManifest();
+				err.printStackTrace();
+				writeMetrics();
+			});
+	}
+
+	/**
+	 * Check whether the manifest of a previous import can be used for a delta import. Changed schemas and unfinished full imports always require a
+	 * full import.
+	 * 
+	 * @return
+	 */
+	private boolean canRunDelta() {
+		if (journal.isResume()) {
+			log.info("Found journal of an unfinished full import. Running full import to resume it.");
+			return false;
+		}
+		if (manifest.isEmpty()) {
+			log.info("No import manifest found. Running full import.");
+			return false;
+		}
+		if (!manifest.matches("schemas", schemaFingerprint())) {
+			log.info("Schemas have been changed. Running full import.");
+			return false;
+		}
+		for (String slug : Arrays.asList("image", "persons", "tours", "video", "exhibits", "screens")) {
+			if (manifest.getUuid(ImportManifest.key("folder", slug)) == null) {
+				log.info("Folder {" + slug + "} is missing in the manifest. Running full import.");
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private Completable syncImages(String folderUuid) {
+		Map<String, Image> images = new LinkedHashMap<>();
+		for (Image image : imageList.getImages()) {
+			images.put(ImportManifest.key("image", image.getName()), image);
+		}
+		return syncElements("image", Lane.IMAGES, images, this::fingerprint, (image, existingUuid) -> importImage(folderUuid, image));
+	}
+
+	private Completable syncVideos(String folderUuid) {
+		Map<String, Video> videos = new LinkedHashMap<>();
+		for (Video video : videoList.getVideos()) {
+			if (video.getImportFlag()) {
+				videos.put(ImportManifest.key("video", video.getName()), video);
+			}
+		}
+		return syncElements("video", Lane.VIDEOS, videos, this::fingerprint, (video, existingUuid) -> importVideo(folderUuid, video));
+	}
+
+	private Completable syncExhibits(String folderUuid) {
+		Map<String, Exhibit> exhibits = new LinkedHashMap<>();
+		for (Exhibit ex : exhibitList.getExhibits()) {
+			exhibits.put(ImportManifest.key("exhibit", ex.getPublicNumber()), ex);
+		}
+		return syncElements("exhibit", Lane.EXHIBITS, exhibits, this::fingerprint, (ex, existingUuid) -> {
+			if (existingUuid == null) {
+				return importExhibit(folderUuid, null, ex);
+			}
+			// The exhibit contains generated sub folders, audio and image nodes. Recreate it using the previous uuid.
+			return deleteNode(existingUuid).andThen(importExhibit(folderUuid, existingUuid, ex));
+		});
+	}
+
+	/**
+	 * Create or update all changed elements and delete elements which are no longer present.
+	 * 
+	 * @param type
+	 *            Element type which is used as manifest key prefix
+	 * @param lane
+	 *            Lane which limits the concurrency
+	 * @param elements
+	 *            Current elements keyed by their manifest key
+	 * @param fingerprinter
+	 * @param importer
+	 *            Function which imports the element and returns the uuid of the element node
+	 * @return
+	 */
+	private <T> Completable syncElements(String type, Lane lane, Map<String, T> elements, Function<T, String> fingerprinter,
+		BiFunction<T, String, Single<String>> importer) {
+		List<String> changed = elements.keySet().stream()
+			.filter(key -> !manifest.matches(key, fingerprinter.apply(elements.get(key))))
+			.collect(Collectors.toList());
+		List<String> removed = manifest.keys(type).stream()
+			.filter(key -> !elements.containsKey(key))
+			.collect(Collectors.toList());
+		log.info("Delta for {" + type + "}: {" + changed.size() + "} changed, {" + removed.size() + "} removed");
+
+		Completable upserts = scheduler.schedule(lane, changed, key -> {
+			return importer.apply(elements.get(key), manifest.getUuid(key)).ignoreElement();
+		});
+		Completable deletes = scheduler.schedule(lane, removed, key -> {
+			return deleteNode(manifest.getUuid(key)).doOnComplete(() -> manifest.remove(key));
+		});
+		return upserts.andThen(deletes);
+	}
+
+	private Completable syncNodes(String type, List<NodeResponse> list, String folderUuid, NodeMapper... mappers) {
+		List<NodeResponse> changed = changedNodes(type, list);
+		return importNodes(client, folderUuid, changed, projectName, scheduler.maxConcurrency(Lane.NODES), mappers)
+			.doOnComplete(() -> recordNodes(type, changed))
+			.andThen(deleteRemovedNodes(type, list));
+	}
+
+	private Completable syncPages(ProjectResponse project) {
+		List<NodeResponse> changed = changedNodes("node", nodes);
+		if (changed.isEmpty()) {
+			return deleteRemovedNodes("node", nodes);
+		}
+		return ImportUtils.importNodes(client, changed, project)
+			.doOnComplete(() -> recordNodes("node", changed))
+			.andThen(deleteRemovedNodes("node", nodes));
+	}
+
+	private List<NodeResponse> changedNodes(String type, List<NodeResponse> list) {
+		List<NodeResponse> changed = list.stream()
+			.filter(node -> {
+				String key = nodeKey(type, node);
+				return !manifest.matches(key, nodeFingerprints.get(key));
+			})
+			.collect(Collectors.toList());
+		log.info("Delta for {" + type + "}: {" + changed.size() + "} changed");
+		return changed;
+	}
+
+	/**
+	 * Delete the node languages which are no longer part of the data. The whole node will be deleted if no language remains.
+	 * 
+	 * @param type
+	 * @param list
+	 * @return
+	 */
+	private Completable deleteRemovedNodes(String type, List<NodeResponse> list) {
+		return Completable.defer(() -> {
+			Set<String> current = list.stream().map(node -> nodeKey(type, node)).collect(Collectors.toSet());
+			Set<String> currentUuids = list.stream().map(NodeResponse::getUuid).collect(Collectors.toSet());
+			Map<String, List<String>> removedLanguages = new HashMap<>();
+			for (String key : manifest.keys(type)) {
+				if (!current.contains(key)) {
+					String[] parts = key.split(":");
+					removedLanguages.computeIfAbsent(parts[1], uuid -> new ArrayList<>()).add(parts[2]);
+					manifest.remove(key);
+				}
+			}
+			return Flowable.fromIterable(removedLanguages.entrySet()).flatMapCompletable(entry -> {
+				String uuid = entry.getKey();
+				if (!currentUuids.contains(uuid)) {
+					return deleteNode(uuid);
+				}
+				return Flowable.fromIterable(entry.getValue()).concatMapCompletable(lang -> {
+					return client.deleteNode(projectName, uuid, lang).toCompletable();
+				});
+			});
+		});
+	}
+
+	private Completable deleteNode(String uuid) {
+		return client.deleteNode(projectName, uuid, new DeleteParametersImpl().setRecursive(true)).toCompletable()
+			.doOnComplete(() -> {
+				log.info("Deleted node {" + uuid + "}");
+			})
+			.onErrorComplete(err -> {
+				log.error("Error while deleting node {" + uuid + "}. Ignoring it.", err);
+				return true;
 			});
 	}
 
+	private void fingerprintNodes(String type, List<NodeResponse> list) {
+		for (NodeResponse node : list) {
+			nodeFingerprints.put(nodeKey(type, node), Fingerprint.of(node.toJson()));
+		}
+	}
+
+	/**
+	 * Fingerprint the nodes along with the import day. Used for nodes whose imported data is derived from the current date.
+	 * 
+	 * @param type
+	 * @param list
+	 * @param importDay
+	 */
+	private void fingerprintNodes(String type, List<NodeResponse> list, String importDay) {
+		for (NodeResponse node : list) {
+			nodeFingerprints.put(nodeKey(type, node), Fingerprint.of(node.toJson(), importDay));
+		}
+	}
+
+	private void recordNodes(String type, List<NodeResponse> list) {
+		for (NodeResponse node : list) {
+			String key = nodeKey(type, node);
+			manifest.put(key, node.getUuid(), nodeFingerprints.get(key));
+		}
+	}
+
+	private static String nodeKey(String type, NodeResponse node) {
+		return ImportManifest.key(type, node.getUuid() + ":" + node.getLanguage());
+	}
+
+	private String fingerprint(Image image) {
+		return Fingerprint.of(image.toJson(), Fingerprint.of(new File("data/image/" + image.getName())), imageProcessor.settings());
+	}
+
+	private String fingerprint(Video video) {
+		return Fingerprint.of(video.toJson(), Fingerprint.of(new File("data/video/" + video.getName())));
+	}
+
+	/**
+	 * The exhibit fingerprint also covers the referenced images and audio files since those are stored within the exhibit.
+	 * 
+	 * @param ex
+	 * @return
+	 */
+	private String fingerprint(Exhibit ex) {
+		List<String> parts = new ArrayList<>();
+		parts.add(ex.toJson());
+		if (ex.getImages() != null) {
+			for (String imageName : ex.getImages()) {
+				Image image = findImage(ex, imageName);
+				parts.add(image == null ? imageName : fingerprint(image));
+			}
+		}
+		ex.getContents().forEach((lang, content) -> {
+			parts.add(Fingerprint.of(audioFile(lang, ex.getPublicNumber(), content.getAudioName())));
+		});
+		return Fingerprint.of(parts.toArray(new String[parts.size()]));
+	}
+
+	private String schemaFingerprint() {
+		List<String> parts = new ArrayList<>();
+		schemas.forEach(schema -> parts.add(schema.toJson()));
+		microschemas.forEach(microschema -> parts.add(microschema.toJson()));
+		return Fingerprint.of(parts.toArray(new String[parts.size()]));
+	}
+
+	private void saveManifest() {
+		try {
+			manifest.save();
+		} catch (IOException e) {
+			log.error("Could not write import manifest", e);
+		}
+	}
+
+	/**
+	 * Log the timings of the import phases and write them to the metrics file.
+	 */
+	private void writeMetrics() {
+		log.info("Import metrics:\n" + metrics);
+		try {
+			metrics.write(new File(config.getMetricsPath()));
+		} catch (IOException e) {
+			log.error("Could not write import metrics", e);
+		}
+	}
+
 }
@@ -0,0 +1,73 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+
+import com.gentics.mesh.musetech.ImporterConfig;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+/**
+ * Creates the HTTP client which is used by the Mesh REST client. The connection pool, protocols, timeouts and TLS session cache are taken from the
+ * {@link ImporterConfig}.
+ */
+public final class MeshHttpClientFactory {
+
+	private MeshHttpClientFactory() {
+	}
+
+	/**
+	 * Create the HTTP client for the configured Mesh server.
+	 * 
+	 * @param config
+	 * @return
+	 */
+	public static OkHttpClient create(ImporterConfig config) {
+		Dispatcher dispatcher = new Dispatcher();
+		dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), config.getMeshMaxRequestsPerHost()));
+		dispatcher.setMaxRequestsPerHost(config.getMeshMaxRequestsPerHost());
+
+		OkHttpClient.Builder builder = new OkHttpClient.Builder()
+			.dispatcher(dispatcher)
+			.connectionPool(new ConnectionPool(config.getMeshPoolSize(), config.getMeshKeepAlive(), TimeUnit.MILLISECONDS))
+			.connectTimeout(config.getMeshConnectTimeout(), TimeUnit.MILLISECONDS)
+			.readTimeout(config.getMeshReadTimeout(), TimeUnit.MILLISECONDS)
+			.writeTimeout(config.getMeshWriteTimeout(), TimeUnit.MILLISECONDS);
+
+		// HTTP/2 is negotiated via ALPN and thus requires SSL
+		if (config.isSsl() && config.isMeshHttp2()) {
+			builder.protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+		} else {
+			builder.protocols(Collections.singletonList(Protocol.HTTP_1_1));
+		}
+
+		if (config.isSsl()) {
+			try {
+				TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+				trustManagerFactory.init((KeyStore) null);
+				X509TrustManager trustManager = (X509TrustManager) trustManagerFactory.getTrustManagers()[0];
+				SSLContext sslContext = SSLContext.getInstance("TLS");
+				sslContext.init(null, new TrustManager[] { trustManager }, null);
+				SSLSessionContext sessions = sslContext.getClientSessionContext();
+				sessions.setSessionCacheSize(config.getMeshTlsSessionCacheSize());
+				sessions.setSessionTimeout(config.getMeshTlsSessionTimeout());
+				builder.sslSocketFactory(sslContext.getSocketFactory(), trustManager);
+			} catch (GeneralSecurityException e) {
+				throw new RuntimeException("Could not initialize the TLS context for Mesh", e);
+			}
+		}
+		return builder.build();
+	}
+}
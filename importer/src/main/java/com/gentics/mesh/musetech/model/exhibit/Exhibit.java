@@ -1,20 +1,29 @@
 package com.gentics.mesh.musetech.model.exhibit;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.gentics.mesh.core.rest.common.RestModel;
 
 public class Exhibit implements RestModel {
 
+	/**
+	 * Language in which the exhibit node gets created. All other languages are added as translations.
+	 */
+	public static final String DEFAULT_LANGUAGE = "en";
+
 	@JsonProperty("public_number")
 	private String publicNumber;
 
-	@JsonProperty("en")
-	private ExhibitContent english;
-
-	@JsonProperty("de")
-	private ExhibitContent german;
+	/**
+	 * Contents of the exhibit keyed by the language tag. Every unknown property of the exhibit json is treated as language content.
+	 */
+	private final Map<String, ExhibitContent> contents = new LinkedHashMap<>();
 
 	private ExhibitLocation location;
 
@@ -25,12 +34,39 @@ public class Exhibit implements RestModel {
 	public Exhibit() {
 	}
 
+	@JsonIgnore
 	public ExhibitContent getEnglish() {
-		return english;
+		return contents.get("en");
 	}
 
+	@JsonIgnore
 	public ExhibitContent getGerman() {
-		return german;
+		return contents.get("de");
+	}
+
+	/**
+	 * Return the contents of all languages.
+	 * 
+	 * @return
+	 */
+	@JsonAnyGetter
+	public Map<String, ExhibitContent> getContents() {
+		return contents;
+	}
+
+	/**
+	 * Return the content for the given language.
+	 * 
+	 * @param lang
+	 * @return Content or null if the exhibit has not been translated to the language
+	 */
+	public ExhibitContent getContent(String lang) {
+		return contents.get(lang);
+	}
+
+	@JsonAnySetter
+	public void setContent(String lang, ExhibitContent content) {
+		contents.put(lang, content);
 	}
 
 	public String getPublicNumber() {
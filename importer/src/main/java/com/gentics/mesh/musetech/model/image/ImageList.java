@@ -2,22 +2,90 @@ package com.gentics.mesh.musetech.model.image;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.io.FileUtils;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.gentics.mesh.json.JsonUtil;
+import com.gentics.mesh.musetech.model.exhibit.Exhibit;
+import com.gentics.mesh.musetech.model.exhibit.ExhibitList;
 
 public class ImageList {
 
 	private List<Image> images;
 
+	@JsonIgnore
+	private Map<String, Image> index = Collections.emptyMap();
+
 	public List<Image> getImages() {
 		return images;
 	}
 
 	public void setImages(List<Image> images) {
 		this.images = images;
+		this.index = buildIndex(images);
+	}
+
+	/**
+	 * Return the image with the given name.
+	 * 
+	 * @param name
+	 * @return Found image or null
+	 */
+	public Image findByName(String name) {
+		return index.get(name);
+	}
+
+	/**
+	 * Return the immutable name index of all images.
+	 * 
+	 * @return
+	 */
+	@JsonIgnore
+	public Map<String, Image> getIndex() {
+		return index;
+	}
+
+	/**
+	 * Check whether all images which are referenced by the exhibits exist in the list.
+	 * 
+	 * @param exhibitList
+	 * @return List of error messages for each dangling reference
+	 */
+	public List<String> findDanglingReferences(ExhibitList exhibitList) {
+		List<String> errors = new ArrayList<>();
+		for (Exhibit ex : exhibitList.getExhibits()) {
+			if (ex.getImages() != null) {
+				for (String imageName : ex.getImages()) {
+					if (!index.containsKey(imageName)) {
+						errors.add("Exhibit {" + ex.getPublicNumber() + "} references unknown image {" + imageName + "}");
+					}
+				}
+			}
+			String titleImage = ex.getTitleImage();
+			if (titleImage != null && !index.containsKey(titleImage)) {
+				errors.add("Exhibit {" + ex.getPublicNumber() + "} references unknown title image {" + titleImage + "}");
+			}
+		}
+		return errors;
+	}
+
+	private static Map<String, Image> buildIndex(List<Image> images) {
+		if (images == null) {
+			return Collections.emptyMap();
+		}
+		Map<String, Image> map = new HashMap<>(images.size() * 2);
+		for (Image image : images) {
+			if (map.put(image.getName(), image) != null) {
+				throw new RuntimeException("The image {" + image.getName() + "} is listed more than once");
+			}
+		}
+		return Collections.unmodifiableMap(map);
 	}
 
 	public static ImageList load() throws IOException {
@@ -2,10 +2,14 @@ package com.gentics.mesh.musetech.model.video;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.io.FileUtils;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.gentics.mesh.core.rest.common.RestModel;
 import com.gentics.mesh.json.JsonUtil;
 
@@ -13,12 +17,49 @@ public class VideoList implements RestModel {
 
 	private List<Video> videos;
 
+	@JsonIgnore
+	private Map<String, Video> index = Collections.emptyMap();
+
 	public List<Video> getVideos() {
 		return videos;
 	}
 
 	public void setVideos(List<Video> videos) {
 		this.videos = videos;
+		this.index = buildIndex(videos);
+	}
+
+	/**
+	 * Return the video with the given name.
+	 * 
+	 * @param name
+	 * @return Found video or null
+	 */
+	public Video findByName(String name) {
+		return index.get(name);
+	}
+
+	/**
+	 * Return the immutable name index of all videos.
+	 * 
+	 * @return
+	 */
+	@JsonIgnore
+	public Map<String, Video> getIndex() {
+		return index;
+	}
+
+	private static Map<String, Video> buildIndex(List<Video> videos) {
+		if (videos == null) {
+			return Collections.emptyMap();
+		}
+		Map<String, Video> map = new HashMap<>(videos.size() * 2);
+		for (Video video : videos) {
+			if (map.put(video.getName(), video) != null) {
+				throw new RuntimeException("The video {" + video.getName() + "} is listed more than once");
+			}
+		}
+		return Collections.unmodifiableMap(map);
 	}
 
 	public static VideoList load() throws IOException {
@@ -0,0 +1,127 @@
+package com.gentics.mesh.musetech.text2speech;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FileUtils;
+
+import com.gentics.mesh.musetech.importer.impl.Fingerprint;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Content addressed cache for synthesized audio. Each clip is keyed by the hash of the text and all settings which affect the synthesis. The manifest
+ * records the key each audio file was generated from so that only audio files whose text or voice changed get regenerated. Synthesized clips are kept
+ * in the cache directory and are reused when the same text is requested again, e.g. after switching branches.
+ */
+public class AudioCache {
+
+	public static final String MANIFEST_NAME = "tts-manifest.json";
+
+	public static final String CACHE_DIR_NAME = ".tts-cache";
+
+	private final File manifestFile;
+
+	private final File cacheDir;
+
+	private final Map<String, String> files = new ConcurrentHashMap<>();
+
+	/**
+	 * Load the cache for the audio directory. The manifest and the cache directory are located within the audio directory.
+	 * 
+	 * @param audioDir
+	 * @throws IOException
+	 */
+	public AudioCache(File audioDir) throws IOException {
+		this.manifestFile = new File(audioDir, MANIFEST_NAME);
+		this.cacheDir = new File(audioDir, CACHE_DIR_NAME);
+		if (manifestFile.exists()) {
+			JsonObject json = new JsonObject(FileUtils.readFileToString(manifestFile, StandardCharsets.UTF_8));
+			JsonObject entries = json.getJsonObject("files", new JsonObject());
+			for (String name : entries.fieldNames()) {
+				files.put(name, entries.getString(name));
+			}
+		}
+	}
+
+	/**
+	 * Compute the cache key for the synthesis of the text with the voice.
+	 * 
+	 * @param text
+	 * @param voice
+	 * @return
+	 */
+	public static String key(String text, Voice voice) {
+		return Fingerprint.of(text, voice.getLanguageCode(), voice.getName(), String.valueOf(voice.getPitch()), String.valueOf(voice.getSpeakingRate()),
+			AudioGenerator.AUDIO_ENCODING, AudioGenerator.EFFECTS_PROFILE);
+	}
+
+	/**
+	 * Check whether the audio file exists and was generated for the key.
+	 * 
+	 * @param output
+	 * @param key
+	 * @return
+	 */
+	public boolean isCurrent(File output, String key) {
+		return output.exists() && key.equals(files.get(output.getName()));
+	}
+
+	/**
+	 * Restore the audio file from a previously synthesized clip.
+	 * 
+	 * @param key
+	 * @param output
+	 * @return true if the clip was found in the cache
+	 * @throws IOException
+	 */
+	public boolean restore(String key, File output) throws IOException {
+		File clip = clip(key);
+		if (!clip.exists()) {
+			return false;
+		}
+		FileUtils.copyFile(clip, output);
+		record(output, key);
+		return true;
+	}
+
+	/**
+	 * Store the synthesized audio file in the cache and record it in the manifest.
+	 * 
+	 * @param key
+	 * @param output
+	 * @throws IOException
+	 */
+	public void store(String key, File output) throws IOException {
+		FileUtils.copyFile(output, clip(key));
+		record(output, key);
+	}
+
+	/**
+	 * Record that the audio file was generated for the key.
+	 * 
+	 * @param output
+	 * @param key
+	 */
+	private void record(File output, String key) {
+		files.put(output.getName(), key);
+	}
+
+	/**
+	 * Write the manifest to disk.
+	 * 
+	 * @throws IOException
+	 */
+	public void save() throws IOException {
+		JsonObject json = new JsonObject();
+		files.keySet().stream().sorted().forEach(name -> json.put(name, files.get(name)));
+		FileUtils.writeStringToFile(manifestFile, new JsonObject().put("files", json).encodePrettily(), StandardCharsets.UTF_8);
+	}
+
+	private File clip(String key) {
+		return new File(cacheDir, key + ".wav");
+	}
+}
@@ -2,88 +2,320 @@ package com.gentics.mesh.musetech.text2speech;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Base64;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.apache.commons.io.FileUtils;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.Single;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Dispatcher;
+import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 
+/**
+ * Synthesizes the exhibit descriptions via the text-to-speech API. Requests are dispatched asynchronously. The amount of requests in flight is bounded
+ * by the dispatcher of the client and the request rate by a {@link RateLimiter}. Throttled requests and server errors are retried with an exponential
+ * backoff.
+ */
 public class AudioGenerator {
 
-	private OkHttpClient client = new OkHttpClient.Builder().build();
+	private static final Logger log = LoggerFactory.getLogger(AudioGenerator.class);
 
-	private final String token;
+	public static final String AUDIO_ENCODING = "LINEAR16";
 
-	public AudioGenerator(String token) {
-		this.token = token;
+	public static final String EFFECTS_PROFILE = "headphone-class-device";
+
+	private static final MediaType JSON = MediaType.get("application/json");
+
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private final AudioGeneratorConfig config;
+
+	private final OkHttpClient client;
+
+	private final RateLimiter limiter;
+
+	private final AudioCache cache;
+
+	/**
+	 * Create a new generator.
+	 * 
+	 * @param config
+	 * @param cache
+	 *            Cache which is used to skip unchanged texts. Can be null to always synthesize the texts.
+	 */
+	public AudioGenerator(AudioGeneratorConfig config, AudioCache cache) {
+		this.config = config;
+		this.cache = cache;
+		Dispatcher dispatcher = new Dispatcher();
+		dispatcher.setMaxRequests(config.getConcurrency());
+		dispatcher.setMaxRequestsPerHost(config.getConcurrency());
+		this.client = new OkHttpClient.Builder().dispatcher(dispatcher).build();
+		this.limiter = new RateLimiter(config.getRequestsPerSecond());
 	}
 
-	public void text2speech(String text, String lang, File output) throws IOException {
-		String languageCode = "en-US";
-		String name = "en-US-Wavenet-D";
-		double pitch = 0f;
-		double speakingRate = 1f;
-		switch (lang) {
-		case "de":
-			languageCode = "de-DE";
-			name = "de-DE-Wavenet-B";
-			pitch = -0.4f;
-			speakingRate = 1.07f;
-			break;
-		case "gb":
-			languageCode = "en-GB";
-			name = "en-GB-Wavenet-B";
-			pitch = 0f;
-			speakingRate = 0.90f;
-			break;
+	/**
+	 * Synthesize all tasks. Tasks whose audio file is up to date or can be restored from the cache are skipped. Failed tasks don't abort the other tasks
+	 * but fail the returned completable once all tasks have been processed.
+	 * 
+	 * @param tasks
+	 * @return
+	 */
+	public Completable generate(List<SpeechTask> tasks) {
+		return Completable.defer(() -> {
+			List<SpeechTask> pending = new ArrayList<>();
+			for (SpeechTask task : tasks) {
+				if (!isCached(task)) {
+					pending.add(task);
+				}
+			}
+			int total = pending.size();
+			AtomicInteger done = new AtomicInteger();
+			AtomicInteger failed = new AtomicInteger();
+			log.info("Generating {" + total + "} audio files. {" + (tasks.size() - total) + "} audio files are up to date.");
+			return Observable.fromIterable(pending).flatMapCompletable(task -> {
+				return synthesize(task).doOnComplete(() -> {
+					log.info("Generated audio {" + done.incrementAndGet() + "/" + total + "} {" + task.getOutput() + "}");
+				}).onErrorComplete(err -> {
+					failed.incrementAndGet();
+					log.error("Could not generate audio {" + task.getOutput() + "} {" + done.incrementAndGet() + "/" + total + "}", err);
+					return true;
+				});
+			}, false, config.getConcurrency()).andThen(Completable.defer(() -> {
+				if (failed.get() > 0) {
+					return Completable.error(new IOException("Generation of {" + failed.get() + "} out of {" + total + "} audio files failed"));
+				}
+				return Completable.complete();
+			}));
+		});
+	}
+
+	/**
+	 * Check whether the audio file of the task is up to date or restore it from the cache. Existing audio files whose key can't be confirmed by the
+	 * manifest are generated again since their text may have changed.
+	 */
+	private boolean isCached(SpeechTask task) throws IOException {
+		if (cache == null) {
+			return false;
+		}
+		File output = task.getOutput();
+		String key = AudioCache.key(task.getText(), task.getVoice());
+		if (cache.isCurrent(output, key)) {
+			return true;
 		}
+		if (cache.restore(key, output)) {
+			log.info("Restored audio {" + output + "} from the cache");
+			return true;
+		}
+		return false;
+	}
+
+	private Completable synthesize(SpeechTask task) {
+		Completable synthesis = text2speech(task.getText(), task.getVoice(), task.getOutput());
+		if (cache == null) {
+			return synthesis;
+		}
+		return synthesis.andThen(Completable.fromAction(() -> {
+			cache.store(AudioCache.key(task.getText(), task.getVoice()), task.getOutput());
+		}));
+	}
 
-		JsonObject result = dispatch(text, languageCode, name, pitch, speakingRate);
-		if (result.containsKey("audioContent")) {
-			byte[] decoded = Base64.getDecoder().decode(result.getString("audioContent"));
-			if (output.exists()) {
-				output.delete();
+	/**
+	 * Synthesize the text and write the audio to the output file. The audio content is decoded while the response is read and streamed to a temporary
+	 * file which replaces the output file once it is complete. Memory usage is thus independent of the length of the clip.
+	 * 
+	 * @param text
+	 * @param voice
+	 * @param output
+	 * @return
+	 */
+	public Completable text2speech(String text, Voice voice, File output) {
+		String body = requestBody(text, voice).encode();
+		return synthesize(body, response -> {
+			writeAudio(response, output);
+			return output;
+		}, 0).ignoreElement();
+	}
+
+	/**
+	 * Locate the audioContent field in the JSON response and decode its base64 value straight into the output file.
+	 */
+	private void writeAudio(ResponseBody response, File output) throws IOException {
+		Path target = output.toPath();
+		Path tmp = target.resolveSibling(output.getName() + ".tmp");
+		try (JsonParser parser = JSON_FACTORY.createParser(response.byteStream())) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new IOException("Response is not a JSON object");
+			}
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String name = parser.getCurrentName();
+				parser.nextToken();
+				if ("audioContent".equals(name)) {
+					try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+						StandardOpenOption.TRUNCATE_EXISTING); OutputStream out = Channels.newOutputStream(channel)) {
+						parser.readBinaryValue(out);
+					} catch (IllegalArgumentException e) {
+						// Jackson reports invalid base64 characters as IllegalArgumentException which would escape the callback
+						throw new IOException("Response contains invalid audio content", e);
+					}
+					Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+					return;
+				}
+				parser.skipChildren();
 			}
-			FileUtils.writeByteArrayToFile(output, decoded);
-			System.out.println("File written");
-		} else {
-			System.out.println("Request seemed to have failed");
-			System.out.println(result.encodePrettily());
+			throw new IOException("Response contains no audio content");
+		} finally {
+			Files.deleteIfExists(tmp);
 		}
 	}
 
-	private JsonObject dispatch(String text, String languageCode, String name, double pitch, double speakingRate) throws IOException {
+	private JsonObject requestBody(String text, Voice voice) {
 		JsonObject body = new JsonObject();
 		body.put("input", new JsonObject().put("text", text));
-		body.put("voice", new JsonObject().put("languageCode", languageCode).put("name", name));
+		body.put("voice", new JsonObject().put("languageCode", voice.getLanguageCode()).put("name", voice.getName()));
 		JsonObject audioConfig = new JsonObject();
-		audioConfig.put("audioEncoding", "LINEAR16");
-		audioConfig.put("pitch", pitch);
-		audioConfig.put("speakingRate", speakingRate);
-		audioConfig.put("effectsProfileId", new JsonArray().add("headphone-class-device"));
+		audioConfig.put("audioEncoding", AUDIO_ENCODING);
+		audioConfig.put("pitch", voice.getPitch());
+		audioConfig.put("speakingRate", voice.getSpeakingRate());
+		audioConfig.put("effectsProfileId", new JsonArray().add(EFFECTS_PROFILE));
 		body.put("audioConfig", audioConfig);
+		return body;
+	}
 
+	/**
+	 * Send the synthesize request once the rate limiter permits it. Retryable failures are retried with an exponential backoff.
+	 * 
+	 * @param body
+	 * @param handler
+	 *            Handler for the successful response
+	 * @param attempt
+	 * @return Result of the handler
+	 */
+	private <T> Single<T> synthesize(String body, ResponseHandler<T> handler, int attempt) {
+		Completable permit = Completable.defer(() -> Completable.timer(limiter.reserve(), TimeUnit.NANOSECONDS));
+		return permit.andThen(dispatch(body, handler)).onErrorResumeNext(err -> {
+			if (attempt >= config.getMaxRetries() || !isRetryable(err)) {
+				return Single.error(err);
+			}
+			long delay = config.getRetryDelay() << attempt;
+			delay += ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+			if (err instanceof SynthesisException) {
+				delay = Math.max(delay, ((SynthesisException) err).retryAfter);
+			}
+			log.warn("Synthesize request failed. Retrying in {" + delay + "} ms: " + err.getMessage());
+			return Single.timer(delay, TimeUnit.MILLISECONDS).flatMap(t -> synthesize(body, handler, attempt + 1));
+		});
+	}
+
+	private <T> Single<T> dispatch(String body, ResponseHandler<T> handler) {
+		HttpUrl.Builder url = HttpUrl.get(config.getEndpoint()).newBuilder();
+		if (config.getToken() != null) {
+			url.addQueryParameter("key", config.getToken());
+		}
 		Request request = new Request.Builder()
 			.header("Accept", "application/json")
-			.url("https://texttospeech.googleapis.com/v1beta1/text:synthesize&token=" + token)
-			.post(RequestBody.create(MediaType.get("application/json"), body.encode()))
+			.url(url.build())
+			.post(RequestBody.create(JSON, body))
 			.build();
 
-		Response response = client().newCall(request).execute();
-		if (!response.isSuccessful()) {
-			throw new RuntimeException("Request failed {" + response.code() + "} {" + response.message() + "}");
+		return Single.create(sub -> {
+			Call call = client.newCall(request);
+			sub.setCancellable(call::cancel);
+			call.enqueue(new Callback() {
+				@Override
+				public void onFailure(Call call, IOException e) {
+					sub.tryOnError(e);
+				}
+
+				@Override
+				public void onResponse(Call call, Response response) {
+					// The body is consumed on the dispatcher thread while it is streamed from the connection
+					try (ResponseBody responseBody = response.body()) {
+						if (response.isSuccessful()) {
+							sub.onSuccess(handler.handle(responseBody));
+						} else {
+							sub.tryOnError(new SynthesisException(response.code(), response.message(), retryAfter(response)));
+						}
+					} catch (IOException e) {
+						sub.tryOnError(e);
+					}
+				}
+			});
+		});
+	}
+
+	private static long retryAfter(Response response) {
+		String header = response.header("Retry-After");
+		if (header != null) {
+			try {
+				return TimeUnit.SECONDS.toMillis(Long.parseLong(header.trim()));
+			} catch (NumberFormatException e) {
+				// HTTP dates are not used by the API
+			}
+		}
+		return 0;
+	}
+
+	private static boolean isRetryable(Throwable err) {
+		if (err instanceof SynthesisException) {
+			int code = ((SynthesisException) err).code;
+			return code == 429 || code >= 500;
 		}
-		return new JsonObject(response.body().string());
+		// Network errors
+		return err instanceof IOException;
+	}
+
+	/**
+	 * Release the threads and connections of the client.
+	 */
+	public void close() {
+		client.dispatcher().executorService().shutdown();
+		client.connectionPool().evictAll();
+	}
+
+	@FunctionalInterface
+	private interface ResponseHandler<T> {
+		T handle(ResponseBody body) throws IOException;
 	}
 
-	public OkHttpClient client() {
-		return client;
+	private static class SynthesisException extends IOException {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int code;
+
+		private final long retryAfter;
+
+		private SynthesisException(int code, String message, long retryAfter) {
+			super("Request failed {" + code + "} {" + message + "}");
+			this.code = code;
+			this.retryAfter = retryAfter;
+		}
 	}
 
 }
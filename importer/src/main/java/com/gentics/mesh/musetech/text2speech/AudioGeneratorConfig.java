@@ -0,0 +1,92 @@
+package com.gentics.mesh.musetech.text2speech;
+
+/**
+ * Settings for the text-to-speech generation of the exhibit audio files.
+ */
+public class AudioGeneratorConfig {
+
+	private String token;
+	private String endpoint = "https://texttospeech.googleapis.com/v1beta1/text:synthesize";
+	private int concurrency = 8;
+	private double requestsPerSecond = 10;
+	private int maxRetries = 5;
+	private long retryDelay = 500;
+
+	/**
+	 * API key which is sent along with each request.
+	 * 
+	 * @return
+	 */
+	public String getToken() {
+		return token;
+	}
+
+	public void setToken(String token) {
+		this.token = token;
+	}
+
+	/**
+	 * URL of the synthesize endpoint. Can be pointed to a local mock of the text-to-speech API.
+	 * 
+	 * @return
+	 */
+	public String getEndpoint() {
+		return endpoint;
+	}
+
+	public void setEndpoint(String endpoint) {
+		this.endpoint = endpoint;
+	}
+
+	/**
+	 * Maximum amount of synthesize requests which are in flight at the same time.
+	 * 
+	 * @return
+	 */
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	public void setConcurrency(int concurrency) {
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * Maximum amount of synthesize requests which are sent per second. Zero disables the limit.
+	 * 
+	 * @return
+	 */
+	public double getRequestsPerSecond() {
+		return requestsPerSecond;
+	}
+
+	public void setRequestsPerSecond(double requestsPerSecond) {
+		this.requestsPerSecond = requestsPerSecond;
+	}
+
+	/**
+	 * Maximum amount of retries for requests which were throttled (429) or failed with a server error (5xx).
+	 * 
+	 * @return
+	 */
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+
+	public void setMaxRetries(int maxRetries) {
+		this.maxRetries = maxRetries;
+	}
+
+	/**
+	 * Delay in milliseconds before the first retry. The delay is doubled with each further retry.
+	 * 
+	 * @return
+	 */
+	public long getRetryDelay() {
+		return retryDelay;
+	}
+
+	public void setRetryDelay(long retryDelay) {
+		this.retryDelay = retryDelay;
+	}
+}
@@ -0,0 +1,38 @@
+package com.gentics.mesh.musetech.text2speech;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces requests evenly so that the configured rate is never exceeded. Each caller reserves the next free slot and waits until it is due.
+ */
+class RateLimiter {
+
+	private final long interval;
+
+	private long next;
+
+	/**
+	 * Create a new limiter.
+	 * 
+	 * @param permitsPerSecond
+	 *            Maximum amount of requests per second. Values less or equal zero disable the limit.
+	 */
+	RateLimiter(double permitsPerSecond) {
+		this.interval = permitsPerSecond <= 0 ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+	}
+
+	/**
+	 * Reserve the next slot.
+	 * 
+	 * @return Time in nanoseconds the caller has to wait before the request may be sent
+	 */
+	synchronized long reserve() {
+		if (interval == 0) {
+			return 0;
+		}
+		long now = System.nanoTime();
+		long slot = Math.max(now, next);
+		next = slot + interval;
+		return slot - now;
+	}
+}
@@ -0,0 +1,32 @@
+package com.gentics.mesh.musetech.text2speech;
+
+import java.io.File;
+
+/**
+ * Text which should be synthesized into an audio file.
+ */
+public class SpeechTask {
+
+	private final String text;
+	private final Voice voice;
+	private final File output;
+
+	public SpeechTask(String text, Voice voice, File output) {
+		this.text = text;
+		this.voice = voice;
+		this.output = output;
+	}
+
+	public String getText() {
+		return text;
+	}
+
+	public Voice getVoice() {
+		return voice;
+	}
+
+	public File getOutput() {
+		return output;
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.gentics.mesh.musetech.text2speech;
+
+/**
+ * Voice settings which are used to synthesize the text of a language.
+ */
+public class Voice {
+
+	private final String languageCode;
+	private final String name;
+	private final double pitch;
+	private final double speakingRate;
+
+	public Voice(String languageCode, String name, double pitch, double speakingRate) {
+		this.languageCode = languageCode;
+		this.name = name;
+		this.pitch = pitch;
+		this.speakingRate = speakingRate;
+	}
+
+	/**
+	 * Return the voice for the audio language. The audio files of english exhibits use the british voice.
+	 * 
+	 * @param lang
+	 *            Audio language (e.g. gb, de)
+	 * @return
+	 */
+	public static Voice forLanguage(String lang) {
+		switch (lang) {
+		case "de":
+			return new Voice("de-DE", "de-DE-Wavenet-B", -0.4, 1.07);
+		case "en":
+		case "gb":
+			return new Voice("en-GB", "en-GB-Wavenet-B", 0, 0.90);
+		default:
+			return new Voice("en-US", "en-US-Wavenet-D", 0, 1);
+		}
+	}
+
+	public String getLanguageCode() {
+		return languageCode;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public double getPitch() {
+		return pitch;
+	}
+
+	public double getSpeakingRate() {
+		return speakingRate;
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AudioTranscoderTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File file(String name, String content) throws IOException {
+		File file = new File(folder.getRoot(), name);
+		FileUtils.writeStringToFile(file, content, StandardCharsets.UTF_8);
+		return file;
+	}
+
+	@Test
+	public void testTarget() {
+		assertEquals(new File("data/audio/13E_gb.mp3"), AudioTranscoder.target(new File("data/audio/13E_gb.wav")));
+	}
+
+	@Test
+	public void testMissingMp3() throws IOException {
+		File wav = file("13E_gb.wav", "pcm");
+		AudioTranscoder transcoder = new AudioTranscoder(folder.getRoot(), 64, 1);
+		assertTrue(transcoder.isOutdated(wav));
+
+		// An MP3 file without a manifest entry can't be trusted
+		file("13E_gb.mp3", "mp3");
+		assertTrue(transcoder.isOutdated(wav));
+	}
+
+	@Test
+	public void testChangedWav() throws IOException {
+		File wav = file("13E_gb.wav", "pcm");
+		File mp3 = file("13E_gb.mp3", "mp3");
+		AudioTranscoder transcoder = new AudioTranscoder(folder.getRoot(), 64, 1);
+		transcoder.record(mp3, Fingerprint.of(wav), transcoder.settings());
+		assertFalse(transcoder.isOutdated(wav));
+
+		// The modification time is irrelevant, only the content counts
+		assertTrue(wav.setLastModified(mp3.lastModified() + 60_000));
+		assertFalse(transcoder.isOutdated(wav));
+
+		FileUtils.writeStringToFile(wav, "new pcm", StandardCharsets.UTF_8);
+		assertTrue(transcoder.isOutdated(wav));
+	}
+
+	@Test
+	public void testChangedSettings() throws IOException {
+		File wav = file("13E_gb.wav", "pcm");
+		File mp3 = file("13E_gb.mp3", "mp3");
+		AudioTranscoder transcoder = new AudioTranscoder(folder.getRoot(), 64, 1);
+		transcoder.record(mp3, Fingerprint.of(wav), transcoder.settings());
+		transcoder.save();
+		assertTrue(new AudioTranscoder(folder.getRoot(), 128, 1).isOutdated(wav));
+		assertFalse(new AudioTranscoder(folder.getRoot(), 64, 1).isOutdated(wav));
+	}
+
+	@Test
+	public void testExternalEncoder() throws IOException {
+		File wav = file("13E_gb.wav", "pcm");
+		File mp3 = file("13E_gb.mp3", "mp3");
+		AudioTranscoder transcoder = new AudioTranscoder(folder.getRoot(), 64, 1);
+		transcoder.record(mp3, Fingerprint.of(wav), AudioTranscoder.EXTERNAL);
+		// MP3 files of other encoders are kept regardless of the settings
+		assertFalse(transcoder.isOutdated(wav));
+
+		FileUtils.writeStringToFile(wav, "new pcm", StandardCharsets.UTF_8);
+		assertTrue(transcoder.isOutdated(wav));
+	}
+
+	@Test
+	public void testNothingToTranscode() throws IOException {
+		File wav = file("13E_gb.wav", "pcm");
+		File mp3 = file("13E_gb.mp3", "mp3");
+		AudioTranscoder transcoder = new AudioTranscoder(folder.getRoot(), 64, 1);
+		transcoder.record(mp3, Fingerprint.of(wav), transcoder.settings());
+		transcoder.transcodeAll().blockingAwait();
+		assertEquals("mp3", FileUtils.readFileToString(mp3, StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,48 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.gentics.mesh.core.rest.node.NodeResponse;
+import com.gentics.mesh.core.rest.node.field.impl.BinaryFieldImpl;
+
+public class BinaryUploaderTest {
+
+	private static final String SHA512_ABC = "ddaf35a193617abacc417349ae20413112e6fa4e89a97ea20a9eeee64b55d39a2192992a274fc1a836ba3c23a3feebbd454d4423643ce80e2a9ac94fa54ca49f";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	// No request may reach the client in these tests
+	private final BinaryUploader uploader = new BinaryUploader(null, "musetech", new ImportMetrics());
+
+	@Test
+	public void testSha512IsComputedOnce() throws IOException {
+		File file = folder.newFile("image.jpg");
+		FileUtils.writeStringToFile(file, "abc", StandardCharsets.UTF_8);
+		assertEquals(SHA512_ABC, uploader.sha512(file));
+
+		// The files don't change during an import
+		FileUtils.writeStringToFile(file, "abd", StandardCharsets.UTF_8);
+		assertEquals(SHA512_ABC, uploader.sha512(file));
+	}
+
+	@Test
+	public void testSkipUnchangedBinary() throws IOException {
+		File file = folder.newFile("image.jpg");
+		FileUtils.writeStringToFile(file, "abc", StandardCharsets.UTF_8);
+		NodeResponse node = new NodeResponse();
+		node.setUuid("675231da002e47a6abf9bc70981e4d09");
+		node.getFields().put("binary", new BinaryFieldImpl().setSha512sum(SHA512_ABC));
+		assertSame(node, uploader.upload("importImages", node, "binary", file, "image/jpeg").blockingGet());
+	}
+}
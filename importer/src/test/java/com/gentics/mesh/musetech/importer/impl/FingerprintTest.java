@@ -0,0 +1,53 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FingerprintTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testStableHash() {
+		// Existing manifests become useless when the hash of the same data changes
+		assertEquals("dc1114cd074914bd872cc1f9a23ec910ea2203bc79779ab2e17da25782a624fc", Fingerprint.of("abc"));
+		assertEquals(Fingerprint.of("abc", "def"), Fingerprint.of("abc", "def"));
+		assertNotEquals(Fingerprint.of("abc"), Fingerprint.of("abd"));
+	}
+
+	@Test
+	public void testPartsAreSeparated() {
+		assertNotEquals(Fingerprint.of("ab", "c"), Fingerprint.of("a", "bc"));
+		assertNotEquals(Fingerprint.of("abc"), Fingerprint.of("abc", ""));
+		// Null parts are hashed as empty strings
+		assertEquals(Fingerprint.of("a", null), Fingerprint.of("a", ""));
+	}
+
+	@Test
+	public void testFile() throws IOException {
+		File file = folder.newFile("data.txt");
+		FileUtils.writeStringToFile(file, "abc", StandardCharsets.UTF_8);
+		assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", Fingerprint.of(file));
+		assertEquals("ddaf35a193617abacc417349ae20413112e6fa4e89a97ea20a9eeee64b55d39a2192992a274fc1a836ba3c23a3feebbd454d4423643ce80e2a9ac94fa54ca49f",
+			Fingerprint.hash(file, "SHA-512"));
+
+		FileUtils.writeStringToFile(file, "abd", StandardCharsets.UTF_8);
+		assertNotEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", Fingerprint.of(file));
+	}
+
+	@Test
+	public void testMissingFile() {
+		assertNull(Fingerprint.of(new File(folder.getRoot(), "missing.txt")));
+	}
+}
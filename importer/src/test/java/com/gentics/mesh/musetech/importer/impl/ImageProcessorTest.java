@@ -0,0 +1,147 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.gentics.mesh.musetech.importer.impl.ImageProcessor.Rendition;
+
+public class ImageProcessorTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File image(String name, int width, int height, int type, String format) throws IOException {
+		BufferedImage image = new BufferedImage(width, height, type);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				image.setRGB(x, y, 0x80000000 | (x * 255 / width) << 16 | (y * 255 / height) << 8);
+			}
+		}
+		File file = new File(folder.getRoot(), name);
+		ImageIO.write(image, format, file);
+		return file;
+	}
+
+	private ImageProcessor processor(int maxSize, float quality) {
+		return new ImageProcessor(folder.getRoot(), maxSize, quality, 2);
+	}
+
+	@Test
+	public void testScaleDown() throws IOException {
+		File original = image("wide.jpg", 3000, 1500, BufferedImage.TYPE_INT_RGB, "jpg");
+		ImageProcessor processor = processor(2048, 0.85f);
+		processor.process(Arrays.asList(original)).blockingAwait();
+
+		Rendition rendition = processor.rendition(original);
+		assertNotEquals(original, rendition.getFile());
+		assertEquals("wide.jpg", rendition.getFile().getName());
+		assertEquals("image/jpeg", rendition.getMimeType());
+		BufferedImage result = ImageIO.read(rendition.getFile());
+		assertEquals(2048, result.getWidth());
+		assertEquals(1024, result.getHeight());
+	}
+
+	@Test
+	public void testAlphaIsWrittenAsPng() throws IOException {
+		File original = image("logo.png", 400, 100, BufferedImage.TYPE_INT_ARGB, "png");
+		ImageProcessor processor = processor(200, 0.85f);
+		processor.process(Arrays.asList(original)).blockingAwait();
+
+		Rendition rendition = processor.rendition(original);
+		assertEquals("logo.png", rendition.getFile().getName());
+		assertEquals("image/png", rendition.getMimeType());
+		BufferedImage result = ImageIO.read(rendition.getFile());
+		assertEquals(200, result.getWidth());
+		assertEquals(50, result.getHeight());
+		assertTrue(result.getColorModel().hasAlpha());
+	}
+
+	@Test
+	public void testOpaquePngIsWrittenAsJpeg() throws IOException {
+		File original = image("photo.png", 400, 200, BufferedImage.TYPE_INT_RGB, "png");
+		ImageProcessor processor = processor(2048, 0.85f);
+		processor.process(Arrays.asList(original)).blockingAwait();
+
+		// The filename of the image node uses the name of the rendition
+		Rendition rendition = processor.rendition(original);
+		assertEquals("photo.jpg", rendition.getFile().getName());
+		assertEquals("image/jpeg", rendition.getMimeType());
+	}
+
+	@Test
+	public void testSmallImageIsKept() throws IOException {
+		File original = image("small.jpg", 64, 64, BufferedImage.TYPE_INT_RGB, "jpg");
+		// Re-encoding with the highest quality produces a larger file
+		ImageProcessor processor = processor(2048, 1f);
+		processor.process(Arrays.asList(original)).blockingAwait();
+
+		Rendition rendition = processor.rendition(original);
+		assertEquals("small.jpg", rendition.getFile().getName());
+		assertTrue(FileUtils.contentEquals(original, rendition.getFile()));
+	}
+
+	@Test
+	public void testUnprocessedImage() throws IOException {
+		File original = image("raw.png", 10, 10, BufferedImage.TYPE_INT_RGB, "png");
+		Rendition rendition = processor(2048, 0.85f).rendition(original);
+		assertEquals(original, rendition.getFile());
+		// The mimetype is detected from the content
+		File renamed = new File(folder.getRoot(), "raw.jpg");
+		FileUtils.moveFile(original, renamed);
+		assertEquals("image/png", ImageProcessor.detectMimeType(renamed));
+	}
+
+	@Test
+	public void testRenditionsAreReused() throws IOException {
+		File original = image("wide.jpg", 3000, 1500, BufferedImage.TYPE_INT_RGB, "jpg");
+		ImageProcessor first = processor(2048, 0.85f);
+		first.process(Arrays.asList(original)).blockingAwait();
+		File rendition = first.rendition(original).getFile();
+		long modified = rendition.lastModified();
+
+		ImageProcessor second = processor(2048, 0.85f);
+		second.process(Arrays.asList(original)).blockingAwait();
+		assertEquals(rendition, second.rendition(original).getFile());
+		assertEquals(modified, rendition.lastModified());
+
+		// Other settings produce another rendition
+		ImageProcessor smaller = processor(1024, 0.85f);
+		assertNotEquals(first.settings(), smaller.settings());
+		smaller.process(Arrays.asList(original)).blockingAwait();
+		assertNotEquals(rendition, smaller.rendition(original).getFile());
+	}
+
+	@Test
+	public void testOrientation() {
+		BufferedImage image = new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < 20; y++) {
+			for (int x = 0; x < 40; x++) {
+				image.setRGB(x, y, x < 20 ? 0xFF0000 : 0x0000FF);
+			}
+		}
+		// Rotated by 90 degrees clockwise, so the left half ends up on top
+		BufferedImage rotated = ImageProcessor.orient(image, 6, false);
+		assertEquals(20, rotated.getWidth());
+		assertEquals(40, rotated.getHeight());
+		assertEquals(0xFF0000, rotated.getRGB(10, 5) & 0xFFFFFF);
+		assertEquals(0x0000FF, rotated.getRGB(10, 35) & 0xFFFFFF);
+
+		// Mirrored horizontally
+		BufferedImage mirrored = ImageProcessor.orient(image, 2, false);
+		assertEquals(40, mirrored.getWidth());
+		assertEquals(0x0000FF, mirrored.getRGB(5, 10) & 0xFFFFFF);
+	}
+}
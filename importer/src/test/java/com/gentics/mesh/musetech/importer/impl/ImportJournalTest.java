@@ -0,0 +1,91 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ImportJournalTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testFreshImport() throws IOException {
+		File file = new File(folder.getRoot(), "import-journal.log");
+		ImportJournal journal = ImportJournal.open(file);
+		assertFalse(journal.isResume());
+		assertFalse(journal.isPhaseDone("schemas"));
+		assertNull(journal.getUuid("image:a.jpg"));
+	}
+
+	@Test
+	public void testResume() throws IOException {
+		File file = new File(folder.getRoot(), "import-journal.log");
+		ImportJournal journal = ImportJournal.open(file);
+		journal.phaseDone("schemas");
+		journal.record("image:a.jpg", "675231da002e47a6abf9bc70981e4d09");
+		journal.record("exhibit:13E", "0b24bb191f2a45a6a4bb191f2a15a6b2");
+
+		// The next run replays the journal of the crashed import
+		ImportJournal resumed = ImportJournal.open(file);
+		assertTrue(resumed.isResume());
+		assertTrue(resumed.isPhaseDone("schemas"));
+		assertFalse(resumed.isPhaseDone("images"));
+		assertEquals("675231da002e47a6abf9bc70981e4d09", resumed.getUuid("image:a.jpg"));
+		assertEquals("0b24bb191f2a45a6a4bb191f2a15a6b2", resumed.getUuid("exhibit:13E"));
+
+		// Entries of the resumed import are appended
+		resumed.phaseDone("images");
+		assertTrue(ImportJournal.open(file).isPhaseDone("images"));
+	}
+
+	@Test
+	public void testPhaseIsRecordedOnce() throws IOException {
+		File file = new File(folder.getRoot(), "import-journal.log");
+		ImportJournal journal = ImportJournal.open(file);
+		journal.phaseDone("schemas");
+		journal.phaseDone("schemas");
+		assertEquals(1, FileUtils.readLines(file, StandardCharsets.UTF_8).size());
+	}
+
+	@Test
+	public void testPartialLastLine() throws IOException {
+		File file = new File(folder.getRoot(), "import-journal.log");
+		FileUtils.writeStringToFile(file, "PHASE\tschemas\nNODE\timage:a.jpg\tuuid1\nNODE\timage:b.j", StandardCharsets.UTF_8);
+		ImportJournal journal = ImportJournal.open(file);
+		assertTrue(journal.isResume());
+		assertEquals("uuid1", journal.getUuid("image:a.jpg"));
+		assertNull(journal.getUuid("image:b.j"));
+	}
+
+	@Test
+	public void testDelete() throws IOException {
+		File file = new File(folder.getRoot(), "import-journal.log");
+		ImportJournal journal = ImportJournal.open(file);
+		journal.record("image:a.jpg", "uuid1");
+		journal.delete();
+		assertFalse(file.exists());
+		assertFalse(ImportJournal.open(file).isResume());
+	}
+
+	@Test
+	public void testDisabled() {
+		ImportJournal journal = ImportJournal.disabled();
+		journal.phaseDone("schemas");
+		journal.record("image:a.jpg", "uuid1");
+		assertFalse(journal.isResume());
+		// A disabled journal never writes anything
+		assertEquals(0, folder.getRoot().list().length);
+		journal.delete();
+	}
+}
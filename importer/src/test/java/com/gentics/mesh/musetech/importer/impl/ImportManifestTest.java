@@ -0,0 +1,79 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ImportManifestTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testMissingFile() throws IOException {
+		ImportManifest manifest = ImportManifest.load(new File(folder.getRoot(), "manifest.json"));
+		assertTrue(manifest.isEmpty());
+		assertNull(manifest.get("image:a.jpg"));
+		assertNull(manifest.getUuid("image:a.jpg"));
+	}
+
+	@Test
+	public void testSaveAndLoad() throws IOException {
+		File file = new File(folder.getRoot(), "manifest.json");
+		ImportManifest manifest = ImportManifest.load(file);
+		manifest.put(ImportManifest.key("image", "a.jpg"), "uuid1", "fp1");
+		manifest.put(ImportManifest.key("exhibit", "13E"), "uuid2", "fp2");
+		manifest.save();
+
+		ImportManifest loaded = ImportManifest.load(file);
+		assertFalse(loaded.isEmpty());
+		assertEquals("uuid1", loaded.getUuid("image:a.jpg"));
+		assertEquals("fp1", loaded.get("image:a.jpg").getFingerprint());
+		assertEquals("uuid2", loaded.getUuid("exhibit:13E"));
+		assertEquals(new HashSet<>(Arrays.asList("image:a.jpg")), loaded.keys("image"));
+	}
+
+	@Test
+	public void testMatches() throws IOException {
+		ImportManifest manifest = ImportManifest.load(new File(folder.getRoot(), "manifest.json"));
+		manifest.put("image:a.jpg", "uuid1", "fp1");
+		manifest.put("image:b.jpg", "uuid2", null);
+		assertTrue(manifest.matches("image:a.jpg", "fp1"));
+		assertFalse(manifest.matches("image:a.jpg", "fp2"));
+		assertFalse(manifest.matches("image:b.jpg", null));
+		assertFalse(manifest.matches("image:c.jpg", "fp1"));
+	}
+
+	@Test
+	public void testSaveCleared() throws IOException {
+		File file = new File(folder.getRoot(), "manifest.json");
+		ImportManifest manifest = ImportManifest.load(file);
+		manifest.put("image:a.jpg", "uuid1", "fp1");
+		manifest.save();
+
+		// A full import saves the cleared manifest before purging the project
+		manifest.clear();
+		manifest.save();
+		assertTrue(ImportManifest.load(file).isEmpty());
+	}
+
+	@Test
+	public void testKeysByType() throws IOException {
+		ImportManifest manifest = ImportManifest.load(new File(folder.getRoot(), "manifest.json"));
+		manifest.put("image:a.jpg", "uuid1", "fp1");
+		manifest.put("image:b.jpg", "uuid2", "fp2");
+		manifest.put("images:c.jpg", "uuid3", "fp3");
+		manifest.remove("image:b.jpg");
+		assertEquals(new HashSet<>(Arrays.asList("image:a.jpg")), manifest.keys("image"));
+	}
+}
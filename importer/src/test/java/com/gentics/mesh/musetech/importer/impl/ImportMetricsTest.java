@@ -0,0 +1,65 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.reactivex.Completable;
+import io.reactivex.Single;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class ImportMetricsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final ImportMetrics metrics = new ImportMetrics();
+
+	@Test
+	public void testPhaseCounters() {
+		metrics.time("importImages", Completable.complete()).blockingAwait();
+		metrics.time("importImages", Single.just("node")).blockingGet();
+		metrics.time("importImages", Completable.error(new IOException("Upload failed"))).onErrorComplete().blockingAwait();
+		metrics.addBytes("importImages", 1024);
+		metrics.addBytes("importImages", 1024);
+
+		JsonObject phase = metrics.toJson().getJsonObject("phases").getJsonObject("importImages");
+		assertEquals(3, phase.getLong("count").longValue());
+		assertEquals(1, phase.getLong("errors").longValue());
+		assertEquals(2048, phase.getLong("bytes").longValue());
+
+		JsonArray histogram = phase.getJsonArray("histogram");
+		long total = 0;
+		for (int i = 0; i < histogram.size(); i++) {
+			total += histogram.getJsonObject(i).getLong("count");
+		}
+		assertEquals(3, total);
+		assertEquals("+Inf", histogram.getJsonObject(histogram.size() - 1).getString("le"));
+	}
+
+	@Test
+	public void testUnsubscribedOperation() {
+		// The latency is measured from the subscription and not from the creation of the operation
+		metrics.time("importVideos", Completable.complete());
+		assertNull(metrics.toJson().getJsonObject("phases").getJsonObject("importVideos"));
+	}
+
+	@Test
+	public void testWrite() throws IOException {
+		metrics.addBytes("importVideos", 42);
+		File file = new File(folder.getRoot(), "import-metrics.json");
+		metrics.write(file);
+		JsonObject json = new JsonObject(FileUtils.readFileToString(file, StandardCharsets.UTF_8));
+		assertEquals(42, json.getJsonObject("phases").getJsonObject("importVideos").getLong("bytes").longValue());
+		assertEquals(0, json.getJsonObject("phases").getJsonObject("importVideos").getLong("count").longValue());
+	}
+}
@@ -0,0 +1,88 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.gentics.mesh.musetech.ImporterConfig;
+import com.gentics.mesh.musetech.importer.impl.ImportScheduler.Lane;
+
+import io.reactivex.subjects.CompletableSubject;
+
+public class ImportSchedulerTest {
+
+	private final ImporterConfig config = new ImporterConfig();
+
+	private static List<Integer> items(int count) {
+		return IntStream.range(0, count).boxed().collect(Collectors.toList());
+	}
+
+	@Test
+	public void testMaxConcurrency() {
+		config.setImageConcurrency(3);
+		config.setVideoConcurrency(0);
+		config.setExhibitConcurrency(-1);
+		ImportScheduler scheduler = new ImportScheduler(config);
+		assertEquals(3, scheduler.maxConcurrency(Lane.IMAGES));
+		// Invalid limits fall back to sequential execution
+		assertEquals(1, scheduler.maxConcurrency(Lane.VIDEOS));
+		assertEquals(1, scheduler.maxConcurrency(Lane.EXHIBITS));
+		assertEquals(config.getNodeConcurrency(), scheduler.maxConcurrency(Lane.NODES));
+	}
+
+	@Test
+	public void testLaneLimit() {
+		config.setImageConcurrency(3);
+		ImportScheduler scheduler = new ImportScheduler(config);
+		List<CompletableSubject> running = new ArrayList<>();
+		AtomicBoolean done = new AtomicBoolean();
+		scheduler.schedule(Lane.IMAGES, items(10), item -> {
+			CompletableSubject operation = CompletableSubject.create();
+			running.add(operation);
+			return operation;
+		}).subscribe(() -> done.set(true));
+
+		// Only the first operations of the lane are started
+		assertEquals(3, running.size());
+
+		// Each completed operation starts the next one
+		running.get(0).onComplete();
+		assertEquals(4, running.size());
+
+		for (int i = 1; i < 10; i++) {
+			assertFalse(done.get());
+			running.get(i).onComplete();
+		}
+		assertEquals(10, running.size());
+		assertTrue(done.get());
+	}
+
+	@Test
+	public void testLanesAreIndependent() {
+		config.setImageConcurrency(1);
+		config.setNodeConcurrency(2);
+		ImportScheduler scheduler = new ImportScheduler(config);
+		List<CompletableSubject> images = new ArrayList<>();
+		List<CompletableSubject> nodes = new ArrayList<>();
+		scheduler.schedule(Lane.IMAGES, items(5), item -> {
+			CompletableSubject operation = CompletableSubject.create();
+			images.add(operation);
+			return operation;
+		}).subscribe();
+		scheduler.schedule(Lane.NODES, items(5), item -> {
+			CompletableSubject operation = CompletableSubject.create();
+			nodes.add(operation);
+			return operation;
+		}).subscribe();
+		assertEquals(1, images.size());
+		assertEquals(2, nodes.size());
+	}
+}
@@ -0,0 +1,85 @@
+package com.gentics.mesh.musetech.importer.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.gentics.mesh.json.JsonUtil;
+import com.gentics.mesh.musetech.importer.ValidationReport;
+import com.gentics.mesh.musetech.model.exhibit.ExhibitList;
+import com.gentics.mesh.musetech.model.image.ImageList;
+import com.gentics.mesh.musetech.model.video.VideoList;
+
+/**
+ * The validator checks the files relative to the working directory, which is the module directory when the tests are run by maven.
+ */
+public class ImportValidatorTest {
+
+	private static final String STEAMENGINE = "{\"public_number\":\"13E\",\"en\":{\"name\":\"Steamengine\",\"description\":\"The mother of all machines.\"},"
+		+ "\"images\":[\"steamengine.jpg\"],\"titleImage\":\"steamengine.jpg\",\"location\":{\"building\":\"Technology\",\"level\":1,\"section\":\"A\"}}";
+
+	private static ExhibitList exhibits(String... exhibits) {
+		return JsonUtil.readValue("{\"exhibits\":[" + String.join(",", exhibits) + "]}", ExhibitList.class);
+	}
+
+	private static ImageList images(String... names) {
+		StringBuilder json = new StringBuilder("{\"images\":[");
+		for (int i = 0; i < names.length; i++) {
+			json.append(i == 0 ? "" : ",").append("{\"name\":\"" + names[i] + "\"}");
+		}
+		return JsonUtil.readValue(json.append("]}").toString(), ImageList.class);
+	}
+
+	private static VideoList videos(String json) {
+		return JsonUtil.readValue("{\"videos\":[" + json + "]}", VideoList.class);
+	}
+
+	private static void assertReported(List<String> messages, String part) {
+		assertTrue("No message contains {" + part + "} in " + messages, messages.stream().anyMatch(m -> m.contains(part)));
+	}
+
+	@Test
+	public void testValidData() {
+		ValidationReport report = new ImportValidator(exhibits(STEAMENGINE), images("steamengine.jpg"), videos("")).validate();
+		assertFalse(report.toString(), report.hasErrors());
+		assertEquals(report.toString(), 0, report.getWarnings().size());
+	}
+
+	@Test
+	public void testExhibitErrors() {
+		ExhibitList exhibits = exhibits(STEAMENGINE, STEAMENGINE, "{\"en\":{\"name\":\"Anonymous\"}}", "{\"public_number\":\"99X\",\"de\":{}}");
+		ValidationReport report = new ImportValidator(exhibits, images("steamengine.jpg"), videos("")).validate();
+		assertTrue(report.hasErrors());
+		assertReported(report.getErrors(), "Exhibit {13E} is listed more than once");
+		assertReported(report.getErrors(), "Found exhibit without public number");
+		assertReported(report.getErrors(), "Exhibit {99X} has no location");
+		assertReported(report.getErrors(), "Exhibit {99X} has no image list");
+		assertReported(report.getErrors(), "Exhibit {99X} has no content for language {en}");
+		assertReported(report.getErrors(), "Exhibit {99X} has no name for language {de}");
+		assertReported(report.getWarnings(), "Exhibit {99X} has no title image");
+		assertReported(report.getWarnings(), "Exhibit {99X} has no description for language {de}");
+		assertReported(report.getWarnings(), "99X_de.mp3");
+	}
+
+	@Test
+	public void testMissingFiles() {
+		ExhibitList exhibits = exhibits(STEAMENGINE);
+		ImageList images = images("steamengine.jpg", "missing.jpg");
+		VideoList videos = videos("{\"name\":\"missing.mp4\",\"import\":true},{\"name\":\"skipped.mp4\",\"import\":false}");
+		ValidationReport report = new ImportValidator(exhibits, images, videos).validate();
+		assertEquals(report.toString(), 2, report.getErrors().size());
+		assertReported(report.getErrors(), "missing.jpg");
+		assertReported(report.getErrors(), "missing.mp4");
+	}
+
+	@Test
+	public void testDanglingReference() {
+		ValidationReport report = new ImportValidator(exhibits(STEAMENGINE), images("allosaurus.jpg"), videos("")).validate();
+		assertReported(report.getErrors(), "references unknown image {steamengine.jpg}");
+		assertReported(report.getErrors(), "references unknown title image {steamengine.jpg}");
+	}
+}
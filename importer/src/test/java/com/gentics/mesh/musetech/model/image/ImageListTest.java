@@ -0,0 +1,55 @@
+package com.gentics.mesh.musetech.model.image;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.gentics.mesh.json.JsonUtil;
+import com.gentics.mesh.musetech.model.exhibit.ExhibitList;
+
+public class ImageListTest {
+
+	private static ImageList images(String... names) {
+		StringBuilder json = new StringBuilder("{\"images\":[");
+		for (int i = 0; i < names.length; i++) {
+			json.append(i == 0 ? "" : ",").append("{\"uuid\":\"uuid" + i + "\",\"name\":\"" + names[i] + "\"}");
+		}
+		return JsonUtil.readValue(json.append("]}").toString(), ImageList.class);
+	}
+
+	@Test
+	public void testFindByName() {
+		ImageList list = images("steamengine.jpg", "allosaurus.jpg");
+		assertEquals("uuid1", list.findByName("allosaurus.jpg").getUuid());
+		assertNull(list.findByName("unknown.jpg"));
+		assertEquals(2, list.getIndex().size());
+	}
+
+	@Test
+	public void testDuplicateName() {
+		ImageList list = images("steamengine.jpg");
+		Image image = list.findByName("steamengine.jpg");
+		try {
+			list.setImages(Arrays.asList(image, image));
+			fail("Duplicate image names must be rejected");
+		} catch (RuntimeException e) {
+			assertTrue(String.valueOf(e.getMessage()).contains("steamengine.jpg"));
+		}
+	}
+
+	@Test
+	public void testDanglingReferences() {
+		ExhibitList exhibits = JsonUtil.readValue("{\"exhibits\":[{\"public_number\":\"13E\",\"images\":[\"steamengine.jpg\",\"missing.jpg\"],"
+			+ "\"titleImage\":\"title.jpg\"}]}", ExhibitList.class);
+		List<String> errors = images("steamengine.jpg").findDanglingReferences(exhibits);
+		assertEquals(2, errors.size());
+		assertTrue(errors.get(0).contains("missing.jpg"));
+		assertTrue(errors.get(1).contains("title.jpg"));
+	}
+}
@@ -0,0 +1,86 @@
+package com.gentics.mesh.musetech.text2speech;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.vertx.core.json.JsonObject;
+
+public class AudioCacheTest {
+
+	private static final Voice GB = Voice.forLanguage("gb");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testKey() {
+		String key = AudioCache.key("The mother of all machines.", GB);
+		assertEquals(key, AudioCache.key("The mother of all machines.", Voice.forLanguage("en")));
+		assertNotEquals(key, AudioCache.key("The mother of all engines.", GB));
+		assertNotEquals(key, AudioCache.key("The mother of all machines.", Voice.forLanguage("de")));
+		assertNotEquals(key, AudioCache.key("The mother of all machines.", new Voice("en-GB", "en-GB-Wavenet-A", 0, 0.90)));
+	}
+
+	@Test
+	public void testHitAndMiss() throws IOException {
+		File output = new File(folder.getRoot(), "13E_gb.wav");
+		String key = AudioCache.key("The mother of all machines.", GB);
+		AudioCache cache = new AudioCache(folder.getRoot());
+		assertFalse(cache.isCurrent(output, key));
+
+		FileUtils.writeStringToFile(output, "pcm", StandardCharsets.UTF_8);
+		// Untracked audio files may have been generated from another text
+		assertFalse(cache.isCurrent(output, key));
+
+		cache.store(key, output);
+		assertTrue(cache.isCurrent(output, key));
+		assertFalse(cache.isCurrent(output, AudioCache.key("The mother of all engines.", GB)));
+
+		// The manifest is kept across runs
+		cache.save();
+		assertTrue(new AudioCache(folder.getRoot()).isCurrent(output, key));
+	}
+
+	@Test
+	public void testRestore() throws IOException {
+		File output = new File(folder.getRoot(), "13E_gb.wav");
+		String key = AudioCache.key("The mother of all machines.", GB);
+		String changedKey = AudioCache.key("The mother of all engines.", GB);
+		AudioCache cache = new AudioCache(folder.getRoot());
+		FileUtils.writeStringToFile(output, "old pcm", StandardCharsets.UTF_8);
+		cache.store(key, output);
+		FileUtils.writeStringToFile(output, "new pcm", StandardCharsets.UTF_8);
+		cache.store(changedKey, output);
+		assertFalse(cache.isCurrent(output, key));
+
+		// Switching back to the previous text restores its clip
+		assertTrue(cache.restore(key, output));
+		assertTrue(cache.isCurrent(output, key));
+		assertEquals("old pcm", FileUtils.readFileToString(output, StandardCharsets.UTF_8));
+
+		assertFalse(cache.restore(AudioCache.key("Unknown", GB), output));
+		assertEquals("old pcm", FileUtils.readFileToString(output, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testCommittedManifest() throws IOException {
+		// The committed clips must be tracked, otherwise the first run after a checkout synthesizes all of them again
+		File audioDir = new File("data/audio");
+		JsonObject manifest = new JsonObject(FileUtils.readFileToString(new File(audioDir, AudioCache.MANIFEST_NAME), StandardCharsets.UTF_8));
+		JsonObject files = manifest.getJsonObject("files");
+		for (File wav : audioDir.listFiles((dir, name) -> name.endsWith(".wav"))) {
+			assertTrue("Audio file {" + wav.getName() + "} is not tracked by the manifest", files.containsKey(wav.getName()));
+		}
+	}
+}
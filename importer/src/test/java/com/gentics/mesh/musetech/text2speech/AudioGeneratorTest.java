@@ -0,0 +1,266 @@
+package com.gentics.mesh.musetech.text2speech;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Runs the generator against a local mock of the text-to-speech API.
+ */
+public class AudioGeneratorTest {
+
+	private static final Voice VOICE = Voice.forLanguage("gb");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Vertx vertx;
+
+	private final AudioGeneratorConfig config = new AudioGeneratorConfig();
+
+	private AudioGenerator generator;
+
+	/**
+	 * Arrival time in milliseconds of every request the mock received.
+	 */
+	private final List<Long> arrivals = new CopyOnWriteArrayList<>();
+
+	private volatile Responder responder = (request, text) -> respond(request, 200, audio(text));
+
+	@Before
+	public void setup() throws Exception {
+		vertx = Vertx.vertx();
+		CompletableFuture<HttpServer> started = new CompletableFuture<>();
+		vertx.createHttpServer().requestHandler(request -> {
+			arrivals.add(System.currentTimeMillis());
+			request.bodyHandler(body -> {
+				responder.respond(request, body.toJsonObject().getJsonObject("input").getString("text"));
+			});
+		}).listen(0, "localhost", rh -> {
+			if (rh.succeeded()) {
+				started.complete(rh.result());
+			} else {
+				started.completeExceptionally(rh.cause());
+			}
+		});
+		HttpServer server = started.get(10, TimeUnit.SECONDS);
+		config.setEndpoint("http://localhost:" + server.actualPort() + "/v1beta1/text:synthesize");
+		config.setRequestsPerSecond(0);
+		config.setRetryDelay(10);
+	}
+
+	@After
+	public void tearDown() {
+		if (generator != null) {
+			generator.close();
+		}
+		vertx.close();
+	}
+
+	@Test
+	public void testRetryAfterThrottling() {
+		AtomicInteger count = new AtomicInteger();
+		responder = (request, text) -> {
+			if (count.getAndIncrement() == 0) {
+				request.response().putHeader("Retry-After", "1");
+				respond(request, 429, new JsonObject());
+			} else {
+				respond(request, 200, audio(text));
+			}
+		};
+		File output = new File(folder.getRoot(), "13E_gb.wav");
+		assertNull(generator().text2speech("The mother of all machines.", VOICE, output).blockingGet());
+		assertEquals(2, arrivals.size());
+		// The Retry-After header takes precedence over the much shorter backoff
+		long wait = arrivals.get(1) - arrivals.get(0);
+		assertTrue("The retry was sent after {" + wait + "} ms", wait >= 1000);
+		assertTrue(output.exists());
+	}
+
+	@Test
+	public void testRetryServerError() {
+		AtomicInteger count = new AtomicInteger();
+		responder = (request, text) -> {
+			if (count.getAndIncrement() < 2) {
+				respond(request, 503, new JsonObject());
+			} else {
+				respond(request, 200, audio(text));
+			}
+		};
+		File output = new File(folder.getRoot(), "13E_gb.wav");
+		assertNull(generator().text2speech("The mother of all machines.", VOICE, output).blockingGet());
+		assertEquals(3, arrivals.size());
+		assertTrue(output.exists());
+	}
+
+	@Test
+	public void testMaxRetries() {
+		config.setMaxRetries(2);
+		responder = (request, text) -> respond(request, 500, new JsonObject());
+		File output = new File(folder.getRoot(), "13E_gb.wav");
+		Throwable err = generator().text2speech("The mother of all machines.", VOICE, output).blockingGet();
+		assertTrue(err instanceof IOException);
+		assertEquals("Request failed {500} {Internal Server Error}", err.getMessage());
+		assertEquals(3, arrivals.size());
+		assertFalse(output.exists());
+	}
+
+	@Test
+	public void testClientErrorIsNotRetried() {
+		responder = (request, text) -> respond(request, 400, new JsonObject());
+		File output = new File(folder.getRoot(), "13E_gb.wav");
+		Throwable err = generator().text2speech("The mother of all machines.", VOICE, output).blockingGet();
+		assertTrue(err instanceof IOException);
+		assertEquals(1, arrivals.size());
+	}
+
+	@Test
+	public void testConcurrencyLimit() {
+		config.setConcurrency(2);
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		responder = (request, text) -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			vertx.setTimer(200, id -> {
+				inFlight.decrementAndGet();
+				respond(request, 200, audio(text));
+			});
+		};
+		assertNull(generator().generate(tasks(6)).blockingGet());
+		assertEquals(6, arrivals.size());
+		assertEquals(2, maxInFlight.get());
+	}
+
+	@Test
+	public void testRateLimit() {
+		config.setRequestsPerSecond(5);
+		assertNull(generator().generate(tasks(5)).blockingGet());
+		assertEquals(5, arrivals.size());
+		// The requests are spaced 200 ms apart. The first one is sent right away.
+		List<Long> sorted = new ArrayList<>(arrivals);
+		sorted.sort(null);
+		long span = sorted.get(4) - sorted.get(0);
+		assertTrue("Five requests were sent within {" + span + "} ms", span >= 700);
+	}
+
+	@Test
+	public void testFailureCount() {
+		responder = (request, text) -> {
+			if (text.startsWith("Broken")) {
+				respond(request, 400, new JsonObject());
+			} else {
+				respond(request, 200, audio(text));
+			}
+		};
+		List<SpeechTask> tasks = new ArrayList<>();
+		tasks.add(new SpeechTask("Broken text 1", VOICE, new File(folder.getRoot(), "1_gb.wav")));
+		tasks.add(new SpeechTask("Valid text", VOICE, new File(folder.getRoot(), "2_gb.wav")));
+		tasks.add(new SpeechTask("Broken text 2", VOICE, new File(folder.getRoot(), "3_gb.wav")));
+		Throwable err = generator().generate(tasks).blockingGet();
+		assertTrue(err instanceof IOException);
+		assertEquals("Generation of {2} out of {3} audio files failed", err.getMessage());
+		// Failed tasks don't abort the other tasks
+		assertTrue(new File(folder.getRoot(), "2_gb.wav").exists());
+		assertFalse(new File(folder.getRoot(), "1_gb.wav").exists());
+		assertFalse(new File(folder.getRoot(), "3_gb.wav").exists());
+	}
+
+	@Test
+	public void testDecodeAudio() throws IOException {
+		byte[] pcm = new byte[256 * 1024];
+		new Random(42).nextBytes(pcm);
+		// Fields before the audio content are skipped
+		responder = (request, text) -> respond(request, 200, new JsonObject()
+			.put("timepoints", new JsonArray().add(new JsonObject().put("markName", "start")))
+			.put("audioContent", Base64.getEncoder().encodeToString(pcm)));
+		File output = new File(folder.getRoot(), "13E_gb.wav");
+		assertNull(generator().text2speech("The mother of all machines.", VOICE, output).blockingGet());
+		assertArrayEquals(pcm, FileUtils.readFileToByteArray(output));
+		assertArrayEquals(new String[] { "13E_gb.wav" }, folder.getRoot().list());
+	}
+
+	@Test
+	public void testMissingAudioContent() {
+		config.setMaxRetries(0);
+		responder = (request, text) -> respond(request, 200, new JsonObject().put("timepoints", new JsonArray()));
+		File output = new File(folder.getRoot(), "13E_gb.wav");
+		Throwable err = generator().text2speech("The mother of all machines.", VOICE, output).blockingGet();
+		assertTrue(err instanceof IOException);
+		assertEquals("Response contains no audio content", err.getMessage());
+		assertArrayEquals(new String[0], folder.getRoot().list());
+	}
+
+	@Test
+	public void testFailedDecodeKeepsAudio() throws IOException {
+		config.setMaxRetries(0);
+		File output = new File(folder.getRoot(), "13E_gb.wav");
+		FileUtils.writeStringToFile(output, "previous pcm", StandardCharsets.UTF_8);
+		// The valid part of the content is decoded and written before the parser hits the invalid character
+		byte[] pcm = new byte[256 * 1024];
+		new Random(42).nextBytes(pcm);
+		responder = (request, text) -> respond(request, 200, new JsonObject()
+			.put("audioContent", Base64.getEncoder().encodeToString(pcm) + "!!!!"));
+		Throwable err = generator().text2speech("The mother of all machines.", VOICE, output).blockingGet();
+		assertTrue(err instanceof IOException);
+		assertEquals("Response contains invalid audio content", err.getMessage());
+		assertEquals("previous pcm", FileUtils.readFileToString(output, StandardCharsets.UTF_8));
+		assertArrayEquals(new String[] { "13E_gb.wav" }, folder.getRoot().list());
+	}
+
+	private AudioGenerator generator() {
+		generator = new AudioGenerator(config, null);
+		return generator;
+	}
+
+	private List<SpeechTask> tasks(int count) {
+		List<SpeechTask> tasks = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			tasks.add(new SpeechTask("Text " + i, VOICE, new File(folder.getRoot(), i + "_gb.wav")));
+		}
+		return tasks;
+	}
+
+	/**
+	 * Return the text as audio content.
+	 */
+	private JsonObject audio(String text) {
+		return new JsonObject().put("audioContent", Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private void respond(HttpServerRequest request, int code, JsonObject body) {
+		request.response().setStatusCode(code).putHeader("Content-Type", "application/json").end(Buffer.buffer(body.encode()));
+	}
+
+	@FunctionalInterface
+	private interface Responder {
+		void respond(HttpServerRequest request, String text);
+	}
+}